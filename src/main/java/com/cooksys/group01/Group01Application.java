@@ -2,8 +2,10 @@ package com.cooksys.group01;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class Group01Application {
 
 	public static void main(String[] args) {
@@ -1,10 +1,13 @@
 package com.cooksys.group01.controllers;
 
 import com.cooksys.group01.dtos.HashtagDTO;
+import com.cooksys.group01.dtos.TrendingHashtagDTO;
 import com.cooksys.group01.dtos.TweetRespDTO;
 import com.cooksys.group01.services.HashtagService;
+import com.cooksys.group01.services.TrendingService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -15,6 +18,7 @@ import java.util.List;
 public class HashtagController {
 
     private final HashtagService hashtagService;
+    private final TrendingService trendingService;
 
     @GetMapping
     public List<HashtagDTO> getAllTags(){
@@ -27,8 +31,22 @@ public class HashtagController {
         return hashtagService.getRandomHashtag();
     }
 
+    @GetMapping("trending")
+    public List<TrendingHashtagDTO> getTrending(@RequestParam(defaultValue = "1h") String window,
+                                                @RequestParam(required = false) Integer limit) {
+        return trendingService.getTrending(window, limit);
+    }
+
+    @GetMapping("suggest")
+    public List<String> suggestTags(@RequestParam String prefix, @RequestParam(required = false) Integer limit) {
+        return hashtagService.suggestTags(prefix, limit);
+    }
+
     @GetMapping("{label}")
-    public List<TweetRespDTO> getTweetsByTag(@PathVariable String label) {
-        return hashtagService.getTweetsByTag(label);
+    public ResponseEntity<List<TweetRespDTO>> getTweetsByTag(@PathVariable String label,
+                                                             @RequestParam(required = false) Integer limit,
+                                                             @RequestParam(required = false) String before,
+                                                             @RequestParam(required = false) String after) {
+        return hashtagService.getTweetsByTag(label, limit, before, after).toResponseEntity();
     }
 }
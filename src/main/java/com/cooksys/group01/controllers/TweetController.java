@@ -10,7 +10,9 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -28,8 +30,10 @@ public class TweetController {
     private final HashtagService hashtagService;
 
     @GetMapping
-    public List<TweetRespDTO> getAllTweets() {
-        return tweetService.getAllTweets();
+    public ResponseEntity<List<TweetRespDTO>> getAllTweets(@RequestParam(required = false) Integer limit,
+                                                           @RequestParam(required = false) String before,
+                                                           @RequestParam(required = false) String after) {
+        return tweetService.getAllTweets(limit, before, after).toResponseEntity();
     }
 
     @GetMapping("{id}")
@@ -48,8 +52,11 @@ public class TweetController {
     }
 
     @GetMapping("{id}/reposts")
-    public List<TweetRespDTO> getRepostsById(@PathVariable Long id) {
-        return tweetService.getRepostsById(id);
+    public ResponseEntity<List<TweetRespDTO>> getRepostsById(@PathVariable Long id,
+                                                             @RequestParam(required = false) Integer limit,
+                                                             @RequestParam(required = false) String before,
+                                                             @RequestParam(required = false) String after) {
+        return tweetService.getRepostsById(id, limit, before, after).toResponseEntity();
     }
 
     @GetMapping("{id}/context")
@@ -57,26 +64,43 @@ public class TweetController {
         return tweetService.getContextById(id);
     }
 
+    @GetMapping("{id}/context/replies")
+    public ResponseEntity<List<ReplyNodeDTO>> getReplyTree(@PathVariable Long id,
+                                                         @RequestParam(required = false) Integer limit,
+                                                         @RequestParam(required = false) String cursor) {
+        return tweetService.getReplyTree(id, limit, cursor).toResponseEntity();
+    }
+
+    @GetMapping("{id}/thread-size")
+    public ThreadSizeDTO getThreadSize(@PathVariable Long id) {
+        return tweetService.getThreadSize(id);
+    }
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public TweetRespDTO createTweet(@RequestBody TweetReqDTO tweet) {
-        return tweetService.createTweet(tweet);
+    public TweetRespDTO createTweet(@RequestBody TweetReqDTO tweet,
+                                    @RequestHeader(value = "Authorization", required = false) String authorization) {
+        return tweetService.createTweet(tweet, authorization);
     }
 
     @PostMapping("{id}/like")
-    public ResponseEntity<HttpStatus> likeTweet(@PathVariable Long id, @RequestBody CredentialsDTO credentials) {
-        return tweetService.likeTweet(id, credentials);
+    public ResponseEntity<HttpStatus> likeTweet(@PathVariable Long id,
+                                                @RequestBody(required = false) CredentialsDTO credentials,
+                                                @RequestHeader(value = "Authorization", required = false) String authorization) {
+        return tweetService.likeTweet(id, credentials, authorization);
     }
 
     @PostMapping("{id}/reply")
     @ResponseStatus(HttpStatus.CREATED)
-    public TweetRespDTO replyToTweet(@PathVariable Long id, @RequestBody TweetReqDTO tweet) {
-        return tweetService.replyToTweet(id, tweet);
+    public TweetRespDTO replyToTweet(@PathVariable Long id, @RequestBody TweetReqDTO tweet,
+                                     @RequestHeader(value = "Authorization", required = false) String authorization) {
+        return tweetService.replyToTweet(id, tweet, authorization);
     }
 
     @PostMapping("{id}/repost")
-    public TweetRespDTO repostById(@PathVariable Long id, @RequestBody CredentialsDTO credentials) {
-    	return tweetService.repostById(id, credentials);
+    public TweetRespDTO repostById(@PathVariable Long id, @RequestBody(required = false) CredentialsDTO credentials,
+                                   @RequestHeader(value = "Authorization", required = false) String authorization) {
+    	return tweetService.repostById(id, credentials, authorization);
     }
 
     @DeleteMapping("{id}")
@@ -85,8 +109,11 @@ public class TweetController {
     }
     
     @GetMapping("{id}/likes")
-    public List<UserRespDTO> getUsersByLikedTweet(@PathVariable Long id) {
-    	return tweetService.getUsersByLikedTweet(id);
+    public ResponseEntity<List<UserRespDTO>> getUsersByLikedTweet(@PathVariable Long id,
+                                                                  @RequestParam(required = false) Integer limit,
+                                                                  @RequestParam(required = false) String before,
+                                                                  @RequestParam(required = false) String after) {
+    	return tweetService.getUsersByLikedTweet(id, limit, before, after).toResponseEntity();
     }
     
     @GetMapping("{id}/tags")
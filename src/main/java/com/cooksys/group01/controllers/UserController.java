@@ -1,14 +1,21 @@
 package com.cooksys.group01.controllers;
 
+import com.cooksys.group01.dtos.BulkFollowReqDTO;
 import com.cooksys.group01.dtos.CredentialsDTO;
+import com.cooksys.group01.dtos.FollowResultDTO;
+import com.cooksys.group01.dtos.RelationshipDTO;
+import com.cooksys.group01.dtos.SessionDTO;
+import com.cooksys.group01.dtos.SuggestionDTO;
 import com.cooksys.group01.dtos.TweetRespDTO;
 import com.cooksys.group01.dtos.UserReqDTO;
 import com.cooksys.group01.dtos.UserRespDTO;
 import com.cooksys.group01.entities.embeddable.Credentials;
+import com.cooksys.group01.services.SessionService;
 import com.cooksys.group01.services.UserService;
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -19,6 +26,7 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final SessionService sessionService;
 
     @GetMapping
     public List<UserRespDTO> getUsers() {
@@ -31,28 +39,52 @@ public class UserController {
     }
 
     @GetMapping("@{username}/followers")
-    public List<UserRespDTO> getFollowers(@PathVariable String username) {
-        return userService.getFollowers(username);
+    public ResponseEntity<List<UserRespDTO>> getFollowers(@PathVariable String username,
+                                                          @RequestParam(required = false) Integer limit,
+                                                          @RequestParam(required = false) String before,
+                                                          @RequestParam(required = false) String after) {
+        return userService.getFollowers(username, limit, before, after).toResponseEntity();
     }
 
     @GetMapping("@{username}/following")
-    public List<UserRespDTO> getFollowing(@PathVariable String username) {
-        return userService.getFollowing(username);
+    public ResponseEntity<List<UserRespDTO>> getFollowing(@PathVariable String username,
+                                                          @RequestParam(required = false) Integer limit,
+                                                          @RequestParam(required = false) String before,
+                                                          @RequestParam(required = false) String after) {
+        return userService.getFollowing(username, limit, before, after).toResponseEntity();
+    }
+
+    @GetMapping("@{username}/suggestions")
+    public List<SuggestionDTO> getSuggestions(@PathVariable String username,
+                                              @RequestParam(required = false) Integer limit) {
+        return userService.getSuggestions(username, limit);
+    }
+
+    @GetMapping("@{username}/relationships")
+    public List<RelationshipDTO> getRelationships(@PathVariable String username,
+                                                  @RequestParam(required = false) List<String> with) {
+        return userService.getRelationships(username, with);
     }
 
     @GetMapping("@{username}/mentions")
-    public List<TweetRespDTO> getMentions(@PathVariable String username) {
-        return userService.getMentions(username);
+    public ResponseEntity<List<TweetRespDTO>> getMentions(@PathVariable String username,
+                                                          @RequestParam(required = false) Integer limit,
+                                                          @RequestParam(required = false) String before,
+                                                          @RequestParam(required = false) String after) {
+        return userService.getMentions(username, limit, before, after).toResponseEntity();
     }
 
     @GetMapping("@{username}/feed")
-    public List<TweetRespDTO> getFeed(@PathVariable String username) {
-        return userService.getFeed(username);
+    public ResponseEntity<List<TweetRespDTO>> getFeed(@PathVariable String username,
+                                                      @RequestParam(required = false) Integer limit,
+                                                      @RequestParam(required = false) String cursor) {
+        return userService.getFeed(username, limit, cursor).toResponseEntity();
     }
 
     @PatchMapping("@{username}")
-    public UserRespDTO updateUser(@PathVariable String username, @RequestBody UserReqDTO user) {
-        return userService.updateUser(username, user);
+    public UserRespDTO updateUser(@PathVariable String username, @RequestBody UserReqDTO user,
+                                  @RequestHeader(value = "Authorization", required = false) String authorization) {
+        return userService.updateUser(username, user, authorization);
     }
 
     @PostMapping
@@ -60,25 +92,50 @@ public class UserController {
     public UserRespDTO createUser(@RequestBody UserReqDTO user) {
         return userService.createUser(user);
     }
+
+    // Issues a token to send as 'Authorization: Bearer <token>' in place of credentials in request bodies
+    @PostMapping("login")
+    public SessionDTO login(@RequestBody CredentialsDTO credentials) {
+        return sessionService.login(credentials);
+    }
+
+    @PostMapping("logout")
+    public void logout(@RequestHeader("Authorization") String authorization) {
+        sessionService.logout(authorization);
+    }
     
     @GetMapping("@{username}/tweets")
-    public List<TweetRespDTO> getUserTweets(@PathVariable String username){
-    	return userService.getUserTweets(username);
+    public ResponseEntity<List<TweetRespDTO>> getUserTweets(@PathVariable String username,
+                                                            @RequestParam(required = false) Integer limit,
+                                                            @RequestParam(required = false) String before,
+                                                            @RequestParam(required = false) String after) {
+    	return userService.getUserTweets(username, limit, before, after).toResponseEntity();
     }
 
     @PostMapping("@{username}/follow")
-    public void followUser(@PathVariable String username, @RequestBody Credentials credentials) {
-        userService.followUser(username, credentials);
+    public void followUser(@PathVariable String username, @RequestBody(required = false) Credentials credentials,
+                           @RequestHeader(value = "Authorization", required = false) String authorization) {
+        userService.followUser(username, credentials, authorization);
     }
 
     @PostMapping("@{username}/unfollow")
-    public void unfollowUser(@PathVariable String username, @RequestBody Credentials credentials) {
-        userService.unfollowUser(username, credentials);
+    public void unfollowUser(@PathVariable String username, @RequestBody(required = false) Credentials credentials,
+                             @RequestHeader(value = "Authorization", required = false) String authorization) {
+        userService.unfollowUser(username, credentials, authorization);
+    }
+
+    // Follows and unfollows on behalf of the user in the path, reporting a result for each target
+    @PostMapping("@{username}/following")
+    public List<FollowResultDTO> bulkFollow(@PathVariable String username, @RequestBody BulkFollowReqDTO request,
+                                            @RequestHeader(value = "Authorization", required = false) String authorization) {
+        return userService.bulkFollow(username, request, authorization);
     }
 
     @DeleteMapping("@{username}")
-    public UserRespDTO deleteUser(@PathVariable String username, @RequestBody CredentialsDTO credentials) {
-        return userService.deleteUser(username, credentials);
+    public UserRespDTO deleteUser(@PathVariable String username,
+                                  @RequestBody(required = false) CredentialsDTO credentials,
+                                  @RequestHeader(value = "Authorization", required = false) String authorization) {
+        return userService.deleteUser(username, credentials, authorization);
     }
 
 }
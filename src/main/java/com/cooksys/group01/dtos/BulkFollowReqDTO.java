@@ -0,0 +1,20 @@
+package com.cooksys.group01.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkFollowReqDTO {
+
+    private CredentialsDTO credentials;
+
+    private List<String> follow;
+
+    private List<String> unfollow;
+
+}
@@ -15,5 +15,9 @@ public class ContextRespDTO {
 
     private List<TweetRespDTO> before;
 
-    private List<TweetRespDTO> after;
+    // The first page of direct replies, each expanded a few levels deep
+    private List<ReplyNodeDTO> after;
+
+    // Continues the direct replies through GET /tweets/{target.id}/context/replies
+    private String afterCursor;
 }
@@ -0,0 +1,18 @@
+package com.cooksys.group01.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FollowResultDTO {
+
+    public enum Result { FOLLOWED, UNFOLLOWED, ALREADY_FOLLOWING, NOT_FOLLOWING, NOT_FOUND }
+
+    private String username;
+
+    private Result result;
+
+}
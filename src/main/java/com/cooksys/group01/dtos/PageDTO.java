@@ -0,0 +1,28 @@
+package com.cooksys.group01.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageDTO<T> {
+
+    public static final String NEXT_CURSOR_HEADER = "Next-Cursor";
+
+    private List<T> items;
+
+    private String nextCursor;
+
+    /* Endpoints keep returning a plain JSON array, the cursor for the following page travels in a header */
+    public ResponseEntity<List<T>> toResponseEntity() {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (nextCursor != null)
+            response.header(NEXT_CURSOR_HEADER, nextCursor);
+        return response.body(items);
+    }
+}
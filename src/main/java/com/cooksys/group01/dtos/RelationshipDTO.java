@@ -0,0 +1,21 @@
+package com.cooksys.group01.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RelationshipDTO {
+
+    private String username;
+
+    // The user follows this account
+    private boolean following;
+
+    // This account follows the user
+    private boolean followedBy;
+
+    private boolean mutual;
+}
@@ -0,0 +1,25 @@
+package com.cooksys.group01.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplyNodeDTO {
+
+    private TweetRespDTO tweet;
+
+    // Direct replies to this tweet, whether or not they are included below
+    private long replyCount;
+
+    // Passed to GET /tweets/{tweet.id}/context/replies for the direct replies not included below; null when all are
+    private String cursor;
+
+    private List<ReplyNodeDTO> replies = new ArrayList<>();
+
+}
@@ -0,0 +1,19 @@
+package com.cooksys.group01.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.sql.Timestamp;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionDTO {
+
+    // Sent back as 'Authorization: Bearer <token>'
+    private String token;
+
+    private Timestamp expires;
+
+}
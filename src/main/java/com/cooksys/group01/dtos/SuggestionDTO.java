@@ -0,0 +1,16 @@
+package com.cooksys.group01.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionDTO {
+
+    private UserRespDTO user;
+
+    // How many of the accounts the user follows also follow this one
+    private long followedBy;
+}
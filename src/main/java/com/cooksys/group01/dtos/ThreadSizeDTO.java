@@ -0,0 +1,17 @@
+package com.cooksys.group01.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ThreadSizeDTO {
+
+    private Long conversationRootId;
+
+    // Replies at any depth below the tweet, not counting deleted ones
+    private long replies;
+
+}
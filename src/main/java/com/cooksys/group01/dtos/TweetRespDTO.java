@@ -23,4 +23,12 @@ public class TweetRespDTO {
 
     private TweetRespDTO repostOf;
 
+    private long likeCount;
+
+    private long replyCount;
+
+    private long repostCount;
+
+    private long mentionCount;
+
 }
@@ -20,7 +20,8 @@ import java.util.List;
 public class Hashtag {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "hashtag_seq")
+    @SequenceGenerator(name = "hashtag_seq", sequenceName = "hashtag_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true)
@@ -34,6 +35,10 @@ public class Hashtag {
     @Column(nullable = false)
     private Timestamp lastUsed;
 
+    // Maintained by HashtagUsageService flushes rather than by entity saves
+    @Column(nullable = false)
+    private long useCount;
+
     @ManyToMany(mappedBy = "hashtags")
     private List<Tweet> tweetsWithHashtag;
 
@@ -0,0 +1,32 @@
+package com.cooksys.group01.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/* One row per tweet that belongs in a user's feed, written at post time (fan-out on write) so a feed
+read is a single range scan on (owner_id, tweet_id) instead of a walk over every followed account */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "timeline_entry",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"owner_id", "tweet_id"}),
+        indexes = @Index(columnList = "owner_id, author_id"))
+public class TimelineEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    @Column(name = "author_id", nullable = false)
+    private Long authorId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "tweet_id", nullable = false)
+    private Tweet tweet;
+}
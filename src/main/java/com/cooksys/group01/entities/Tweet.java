@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import com.cooksys.group01.entities.generators.SnowflakeIdGenerator;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.GenericGenerator;
 
 import java.sql.Timestamp;
 import java.util.Date;
@@ -15,10 +17,16 @@ import java.util.Set;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@Table(indexes = {
+        @Index(columnList = "author, id"),
+        @Index(columnList = "repost_of, id")
+})
 public class Tweet {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Snowflake ids increase with posting time, so ordering by id is ordering by time
+    @GeneratedValue(generator = "snowflake")
+    @GenericGenerator(name = "snowflake", type = SnowflakeIdGenerator.class)
     private Long id;
 
     @ManyToOne
@@ -43,7 +51,8 @@ public class Tweet {
     @JoinTable(
             name = "tweet_hashtags",
             joinColumns = @JoinColumn(name = "tweet_id"),
-            inverseJoinColumns = @JoinColumn(name = "hashtag_id"))
+            inverseJoinColumns = @JoinColumn(name = "hashtag_id"),
+            indexes = @Index(columnList = "hashtag_id, tweet_id"))
     private List<Hashtag> hashtags;
 
     @OneToMany(mappedBy = "inReplyTo")
@@ -53,6 +62,10 @@ public class Tweet {
     @JoinColumn(name = "inReplyTo")
     private Tweet inReplyTo;
 
+    // The tweet at the top of the reply chain; null for tweets that are not replies
+    @Column(name = "conversation_root_id")
+    private Long conversationRootId;
+
     @OneToMany(mappedBy = "repostOf")
     private List<Tweet> repostThread;
 
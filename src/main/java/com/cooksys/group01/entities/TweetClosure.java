@@ -0,0 +1,35 @@
+package com.cooksys.group01.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/* One row for every (ancestor, descendant) pair in a reply thread, written when a reply is posted, so the
+ancestors, descendants or size of any tweet's thread is a single index range scan however deep it goes */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "tweet_closure",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"ancestor_id", "descendant_id"}),
+        indexes = {
+                @Index(columnList = "ancestor_id, depth, descendant_id"),
+                @Index(columnList = "descendant_id, depth")
+        })
+public class TweetClosure {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "ancestor_id", nullable = false)
+    private Long ancestorId;
+
+    @Column(name = "descendant_id", nullable = false)
+    private Long descendantId;
+
+    // 1 for a direct reply, 2 for a reply to a reply, and so on
+    @Column(nullable = false)
+    private int depth;
+}
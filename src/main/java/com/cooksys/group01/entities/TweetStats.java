@@ -0,0 +1,34 @@
+package com.cooksys.group01.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/* Engagement counts for one tweet, kept up to date as likes, replies, reposts and deletions happen so a
+count is one primary key read instead of a scan of the join tables */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "tweet_stats")
+public class TweetStats {
+
+    @Id
+    @Column(name = "tweet_id")
+    private Long tweetId;
+
+    @Column(nullable = false)
+    private long likeCount;
+
+    // Direct replies that are not deleted
+    @Column(nullable = false)
+    private long replyCount;
+
+    // Reposts that are not deleted
+    @Column(nullable = false)
+    private long repostCount;
+
+    @Column(nullable = false)
+    private long mentionCount;
+}
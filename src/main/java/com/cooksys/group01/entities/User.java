@@ -18,7 +18,8 @@ import java.util.List;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_table_seq")
+    @SequenceGenerator(name = "user_table_seq", sequenceName = "user_table_seq", allocationSize = 50)
     private Long id;
 
     @Embedded
@@ -47,21 +48,27 @@ public class User {
     @JoinTable(
             name = "user_likes",
             joinColumns = @JoinColumn(name = "user_id"),
-            inverseJoinColumns = @JoinColumn(name = "tweet_id"))
+            inverseJoinColumns = @JoinColumn(name = "tweet_id"),
+            indexes = @Index(columnList = "tweet_id, user_id", unique = true))
     private List<Tweet> likedTweets;
 
     @ManyToMany
     @JoinTable(
             name = "user_mentions",
             joinColumns = @JoinColumn(name = "user_id"),
-            inverseJoinColumns = @JoinColumn(name = "tweet_id"))
+            inverseJoinColumns = @JoinColumn(name = "tweet_id"),
+            indexes = @Index(columnList = "user_id, tweet_id"))
     private List<Tweet> mentionedTweets;
 
     @ManyToMany
     @JoinTable(
             name = "followers_following",
             joinColumns = @JoinColumn(name = "following_id"),
-            inverseJoinColumns = @JoinColumn(name = "follower_id"))
+            inverseJoinColumns = @JoinColumn(name = "follower_id"),
+            indexes = {
+                    @Index(columnList = "following_id, follower_id", unique = true),
+                    @Index(columnList = "follower_id, following_id")
+            })
     private List<User> followers;
 
     @ManyToMany(mappedBy = "followers")
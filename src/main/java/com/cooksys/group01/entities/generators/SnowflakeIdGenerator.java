@@ -0,0 +1,32 @@
+package com.cooksys.group01.entities.generators;
+
+import com.cooksys.group01.utils.Snowflake;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/* Issues Snowflake ids in process, without a round-trip to the database. Every app node sharing a database
+must be given its own node id through spring.jpa.properties.twitter.snowflake.node-id. */
+public class SnowflakeIdGenerator implements IdentifierGenerator {
+
+    public static final String NODE_ID_SETTING = "twitter.snowflake.node-id";
+
+    private Snowflake snowflake;
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) {
+        Integer node = serviceRegistry.getService(ConfigurationService.class)
+                .getSetting(NODE_ID_SETTING, StandardConverters.INTEGER, 0);
+        snowflake = new Snowflake(node);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return snowflake.nextId();
+    }
+}
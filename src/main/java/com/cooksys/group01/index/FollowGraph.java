@@ -0,0 +1,260 @@
+package com.cooksys.group01.index;
+
+import com.cooksys.group01.repositories.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/* Both directions of followers_following as sorted long arrays, one per user, so membership is a binary search,
+degree is an array length and a page of neighbours is a slice, none of which touches JPA. An edge costs 8 bytes
+in each direction, so 10M edges take about 160MB plus a map entry and array header per user. Arrays are never
+changed in place: a follow or unfollow swaps in a copy under the map's per-key lock, and readers keep working
+on whatever array they already hold. That copy is proportional to the user's degree, which is fine for follow
+rates but is the cost to watch for very large accounts. Both directions of an edge are changed under a lock
+striped by follower, so a follow and an unfollow of the same edge cannot interleave and leave it in one map
+only. Like the other in-memory indexes this only sees the writes made through this instance. */
+@Component
+@RequiredArgsConstructor
+public class FollowGraph {
+
+    private static final long[] EMPTY = new long[0];
+    private static final int LOCK_STRIPES = 64;
+
+    private final UserRepository userRepository;
+
+    private final Map<Long, long[]> followers = new ConcurrentHashMap<>();
+    private final Map<Long, long[]> following = new ConcurrentHashMap<>();
+    // Deleted users keep their edges, since a restored account gets them back, but are left out of pages
+    private final Set<Long> deletedUsers = ConcurrentHashMap.newKeySet();
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    {
+        for (int i = 0; i < LOCK_STRIPES; i++)
+            locks[i] = new Object();
+    }
+
+    @PostConstruct
+    public void load() {
+        Map<Long, Adjacency> followersOf = new HashMap<>();
+        Map<Long, Adjacency> followingOf = new HashMap<>();
+        userRepository.forEachFollow((followerId, followedId) -> {
+            followersOf.computeIfAbsent(followedId, id -> new Adjacency()).add(followerId);
+            followingOf.computeIfAbsent(followerId, id -> new Adjacency()).add(followedId);
+        });
+        followersOf.forEach((userId, adjacency) -> followers.put(userId, adjacency.toSortedArray()));
+        followingOf.forEach((userId, adjacency) -> following.put(userId, adjacency.toSortedArray()));
+        deletedUsers.addAll(userRepository.findDeletedIds());
+    }
+
+    public boolean follows(long followerId, long followedId) {
+        return Arrays.binarySearch(following.getOrDefault(followerId, EMPTY), followedId) >= 0;
+    }
+
+    /* Live followers only, since deleted accounts keep their edges. Whichever is smaller is walked: the
+    followers, checking each against the deleted set, or the deleted set, searching each in the followers. */
+    public int followerCount(long userId) {
+        long[] ids = followers(userId);
+        int deleted = 0;
+        if (deletedUsers.size() < ids.length) {
+            for (Long id : deletedUsers)
+                if (Arrays.binarySearch(ids, id) >= 0)
+                    deleted++;
+        } else {
+            for (long id : ids)
+                if (deletedUsers.contains(id))
+                    deleted++;
+        }
+        return ids.length - deleted;
+    }
+
+    public int followingCount(long userId) {
+        return following.getOrDefault(userId, EMPTY).length;
+    }
+
+    // Sorted ascending and shared, so callers must not modify them
+    public long[] followers(long userId) {
+        return followers.getOrDefault(userId, EMPTY);
+    }
+
+    public long[] following(long userId) {
+        return following.getOrDefault(userId, EMPTY);
+    }
+
+    // For each of the sorted targets, whether the follower follows it
+    public boolean[] followsAll(long followerId, long[] sortedTargets) {
+        return containsAll(following(followerId), sortedTargets);
+    }
+
+    // For each of the sorted targets, whether it follows the given user
+    public boolean[] followedByAll(long followedId, long[] sortedTargets) {
+        return containsAll(followers(followedId), sortedTargets);
+    }
+
+    public List<Long> followersBefore(long userId, long id, int limit) {
+        return before(followers(userId), id, limit);
+    }
+
+    public List<Long> followersAfter(long userId, long id, int limit) {
+        return after(followers(userId), id, limit);
+    }
+
+    public List<Long> followingBefore(long userId, long id, int limit) {
+        return before(following(userId), id, limit);
+    }
+
+    public List<Long> followingAfter(long userId, long id, int limit) {
+        return after(following(userId), id, limit);
+    }
+
+    // Returns false when the edge was already there
+    public boolean follow(long followerId, long followedId) {
+        synchronized (lockFor(followerId)) {
+            long[] ids = following.getOrDefault(followerId, EMPTY);
+            long[] updated = insert(ids, followedId);
+            if (updated == ids)
+                return false;
+            following.put(followerId, updated);
+            followers.compute(followedId, (id, current) -> insert(current == null ? EMPTY : current, followerId));
+            return true;
+        }
+    }
+
+    // Returns false when there was no edge to remove
+    public boolean unfollow(long followerId, long followedId) {
+        synchronized (lockFor(followerId)) {
+            long[] ids = following.getOrDefault(followerId, EMPTY);
+            long[] updated = remove(ids, followedId);
+            if (updated == ids)
+                return false;
+            if (updated.length == 0)
+                following.remove(followerId);
+            else
+                following.put(followerId, updated);
+            // Other followers of the same account hold other stripes, so this side still needs the per-key lock
+            followers.computeIfPresent(followedId, (id, current) -> {
+                long[] remaining = remove(current, followerId);
+                return remaining.length == 0 ? null : remaining;
+            });
+            return true;
+        }
+    }
+
+    public boolean isDeleted(long userId) {
+        return deletedUsers.contains(userId);
+    }
+
+    public void setDeleted(long userId, boolean deleted) {
+        if (deleted)
+            deletedUsers.add(userId);
+        else
+            deletedUsers.remove(userId);
+    }
+
+    // HELPER FUNCTIONS
+    private Object lockFor(long followerId) {
+        return locks[(int) (followerId ^ followerId >>> 32) & (LOCK_STRIPES - 1)];
+    }
+
+    // Newest first, from just below the cursor
+    private List<Long> before(long[] ids, long id, int limit) {
+        List<Long> page = new ArrayList<>(limit);
+        for (int i = lowerBound(ids, id) - 1; i >= 0 && page.size() < limit; i--)
+            if (!deletedUsers.contains(ids[i]))
+                page.add(ids[i]);
+        return page;
+    }
+
+    // Oldest first, from just above the cursor, which is the order Pagination expects for after pages
+    private List<Long> after(long[] ids, long id, int limit) {
+        List<Long> page = new ArrayList<>(limit);
+        for (int i = lowerBound(ids, id == Long.MAX_VALUE ? id : id + 1); i < ids.length && page.size() < limit; i++)
+            if (!deletedUsers.contains(ids[i]))
+                page.add(ids[i]);
+        return page;
+    }
+
+    /* Intersects two sorted arrays. A few targets against a large neighbour list are binary searched, each
+    search starting where the last one ended; otherwise both are walked together once. */
+    private static boolean[] containsAll(long[] ids, long[] targets) {
+        boolean[] found = new boolean[targets.length];
+        if ((long) targets.length * (64 - Long.numberOfLeadingZeros(ids.length)) < ids.length) {
+            int from = 0;
+            for (int t = 0; t < targets.length; t++) {
+                int at = Arrays.binarySearch(ids, from, ids.length, targets[t]);
+                found[t] = at >= 0;
+                from = at >= 0 ? at : -at - 1;
+            }
+            return found;
+        }
+        int i = 0;
+        for (int t = 0; t < targets.length; t++) {
+            while (i < ids.length && ids[i] < targets[t])
+                i++;
+            found[t] = i < ids.length && ids[i] == targets[t];
+        }
+        return found;
+    }
+
+    // Index of the first element not less than id
+    static int lowerBound(long[] ids, long id) {
+        int low = 0, high = ids.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ids[mid] < id)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    // Returns ids itself when id is already there, otherwise a copy with id in place
+    static long[] insert(long[] ids, long id) {
+        int at = Arrays.binarySearch(ids, id);
+        if (at >= 0)
+            return ids;
+        at = -at - 1;
+        long[] updated = new long[ids.length + 1];
+        System.arraycopy(ids, 0, updated, 0, at);
+        updated[at] = id;
+        System.arraycopy(ids, at, updated, at + 1, ids.length - at);
+        return updated;
+    }
+
+    // Returns ids itself when id is not there, otherwise a copy without it
+    static long[] remove(long[] ids, long id) {
+        int at = Arrays.binarySearch(ids, id);
+        if (at < 0)
+            return ids;
+        long[] updated = new long[ids.length - 1];
+        System.arraycopy(ids, 0, updated, 0, at);
+        System.arraycopy(ids, at + 1, updated, at, ids.length - at - 1);
+        return updated;
+    }
+
+    // Growable buffer used only while loading
+    private static final class Adjacency {
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            if (size == ids.length)
+                ids = Arrays.copyOf(ids, size * 2);
+            ids[size++] = id;
+        }
+
+        long[] toSortedArray() {
+            long[] sorted = Arrays.copyOf(ids, size);
+            Arrays.sort(sorted);
+            // Rows written before the unique index existed may repeat an edge
+            int unique = 0;
+            for (int i = 0; i < sorted.length; i++)
+                if (i == 0 || sorted[i] != sorted[i - 1])
+                    sorted[unique++] = sorted[i];
+            return unique == sorted.length ? sorted : Arrays.copyOf(sorted, unique);
+        }
+    }
+}
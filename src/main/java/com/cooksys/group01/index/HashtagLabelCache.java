@@ -0,0 +1,34 @@
+package com.cooksys.group01.index;
+
+import com.cooksys.group01.repositories.HashtagRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/* Label to id lookup for every known hashtag, so tagging a tweet does not have to ask the database which
+of its labels already exist */
+@Component
+@RequiredArgsConstructor
+public class HashtagLabelCache {
+
+    private final HashtagRepository hashtagRepository;
+
+    private final Map<String, Long> ids = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void load() {
+        for (Object[] row : hashtagRepository.getAllLabelsAndIds())
+            ids.put((String) row[0], (Long) row[1]);
+    }
+
+    public Long get(String label) {
+        return ids.get(label);
+    }
+
+    public void putAll(Map<String, Long> labelIds) {
+        ids.putAll(labelIds);
+    }
+}
@@ -0,0 +1,214 @@
+package com.cooksys.group01.index;
+
+import com.cooksys.group01.repositories.HashtagRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/* Autocomplete over every hashtag label. The bulk of the vocabulary lives in a sorted String[] with a
+parallel array of last-use times, so the labels under a prefix are one contiguous range found by binary search
+and the index costs little more than the strings themselves. Over that array sits a segment tree holding, for
+each node, the position of its most recently used label: the most recent labels in any range come out best
+first in O(limit log n), however many labels share a short prefix. Labels created since the last rebuild sit in
+a small skip list that is folded into the arrays once it grows past REBUILD_THRESHOLD. */
+@Component
+@RequiredArgsConstructor
+public class HashtagPrefixIndex {
+
+    private static final int REBUILD_THRESHOLD = 10_000;
+
+    private final HashtagRepository hashtagRepository;
+
+    private volatile Snapshot snapshot = Snapshot.of(new String[0], new AtomicLongArray(0));
+    private final ConcurrentSkipListMap<String, Long> recent = new ConcurrentSkipListMap<>();
+
+    @PostConstruct
+    public void load() {
+        List<Object[]> rows = hashtagRepository.getAllLabelsAndLastUsed();
+        rows.sort(Comparator.comparing((Object[] row) -> (String) row[0]));
+        String[] labels = new String[rows.size()];
+        AtomicLongArray lastUsed = new AtomicLongArray(rows.size());
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = (String) rows.get(i)[0];
+            lastUsed.set(i, ((Timestamp) rows.get(i)[1]).getTime());
+        }
+        snapshot = Snapshot.of(labels, lastUsed);
+    }
+
+    /* Registers the label if it is new, otherwise moves its last use forward. A rebuild copies the arrays and
+    then replays the old ones into the copy, so a use written to the old snapshot before the swap is carried
+    over, and one that finds the snapshot swapped after writing is simply written again to the new one. */
+    public void recordUse(String label, long usedAt) {
+        Snapshot current = snapshot;
+        while (true) {
+            int index = Arrays.binarySearch(current.labels, label);
+            if (index >= 0)
+                current.touch(index, usedAt);
+            else
+                recent.merge(label, usedAt, Math::max);
+            Snapshot latest = snapshot;
+            if (latest == current)
+                break;
+            current = latest;
+        }
+        if (recent.size() > REBUILD_THRESHOLD)
+            rebuild();
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        PriorityQueue<Suggestion> best = new PriorityQueue<>(limit + 1, Comparator.comparingLong(Suggestion::lastUsed));
+        Snapshot current = snapshot;
+        int start = lowerBound(current.labels, prefix);
+        for (int index : current.mostRecent(start, prefixEnd(current.labels, prefix, start), limit))
+            offer(best, limit, current.labels[index], current.lastUsed.get(index));
+        ConcurrentNavigableMap<String, Long> matches = recent.subMap(prefix, prefix + Character.MAX_VALUE);
+        for (Map.Entry<String, Long> match : matches.entrySet())
+            // A label can briefly be in both places while a rebuild is swapping the arrays in
+            if (Arrays.binarySearch(current.labels, match.getKey()) < 0)
+                offer(best, limit, match.getKey(), match.getValue());
+
+        String[] ranked = new String[best.size()];
+        for (int i = ranked.length - 1; i >= 0; i--)
+            ranked[i] = best.poll().label();
+        return Arrays.asList(ranked);
+    }
+
+    // HELPER FUNCTIONS
+    private synchronized void rebuild() {
+        if (recent.size() <= REBUILD_THRESHOLD)
+            return;
+        Snapshot current = snapshot;
+        Map<String, Long> added = new TreeMap<>(recent);
+        String[] labels = new String[current.labels.length + added.size()];
+        AtomicLongArray lastUsed = new AtomicLongArray(labels.length);
+        // Where each label of the current snapshot ends up, for the replay below
+        int[] moved = new int[current.labels.length];
+        int i = 0, out = 0;
+        Iterator<Map.Entry<String, Long>> pending = added.entrySet().iterator();
+        Map.Entry<String, Long> next = pending.hasNext() ? pending.next() : null;
+        while (i < current.labels.length || next != null) {
+            int order = next == null ? -1 : i == current.labels.length ? 1 : current.labels[i].compareTo(next.getKey());
+            if (order <= 0) {
+                // A label added to the skip list just as an earlier rebuild swapped it in is only kept once
+                long used = current.lastUsed.get(i);
+                if (order == 0) {
+                    used = Math.max(used, next.getValue());
+                    next = pending.hasNext() ? pending.next() : null;
+                }
+                moved[i] = out;
+                labels[out] = current.labels[i++];
+                lastUsed.set(out++, used);
+            } else {
+                labels[out] = next.getKey();
+                lastUsed.set(out++, next.getValue());
+                next = pending.hasNext() ? pending.next() : null;
+            }
+        }
+        Snapshot rebuilt = Snapshot.of(out == labels.length ? labels : Arrays.copyOf(labels, out), lastUsed);
+        snapshot = rebuilt;
+        // Uses recorded on the old arrays or in the skip list while merging are carried over
+        for (int old = 0; old < moved.length; old++)
+            rebuilt.touch(moved[old], current.lastUsed.get(old));
+        for (String label : added.keySet()) {
+            Long latest = recent.remove(label);
+            if (latest != null)
+                rebuilt.touch(Arrays.binarySearch(rebuilt.labels, label), latest);
+        }
+    }
+
+    private static int lowerBound(String[] labels, String key) {
+        int index = Arrays.binarySearch(labels, key);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    // Index of the first label from start on that does not begin with the prefix
+    private static int prefixEnd(String[] labels, String prefix, int start) {
+        int low = start, high = labels.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (labels[mid].startsWith(prefix))
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    private static void offer(PriorityQueue<Suggestion> best, int limit, String label, long lastUsed) {
+        if (best.size() < limit) {
+            best.add(new Suggestion(label, lastUsed));
+        } else if (best.peek().lastUsed() < lastUsed) {
+            best.poll();
+            best.add(new Suggestion(label, lastUsed));
+        }
+    }
+
+    /* latest is laid out bottom-up: leaf n + i stands for label i and node p covers nodes 2p and 2p + 1,
+    holding whichever of their labels was used last. Last-use times only move forward, so an update climbs
+    until it meets an ancestor already holding something at least as recent, and a compare-and-set keeps two
+    updates on the same path from overwriting each other. */
+    private record Snapshot(String[] labels, AtomicLongArray lastUsed, AtomicIntegerArray latest) {
+
+        private static Snapshot of(String[] labels, AtomicLongArray lastUsed) {
+            int n = labels.length;
+            AtomicIntegerArray latest = new AtomicIntegerArray(2 * n);
+            for (int i = 0; i < n; i++)
+                latest.set(n + i, i);
+            for (int node = n - 1; node > 0; node--)
+                latest.set(node, later(lastUsed, latest.get(2 * node), latest.get(2 * node + 1)));
+            return new Snapshot(labels, lastUsed, latest);
+        }
+
+        private void touch(int index, long usedAt) {
+            if (lastUsed.accumulateAndGet(index, usedAt, Math::max) != usedAt)
+                return;
+            for (int node = (labels.length + index) >>> 1; node > 0; node >>>= 1) {
+                int held;
+                do {
+                    held = latest.get(node);
+                    if (lastUsed.get(held) >= usedAt)
+                        return;
+                } while (!latest.compareAndSet(node, held, index));
+            }
+        }
+
+        // Positions in [start, end) of up to limit labels, most recently used first
+        private int[] mostRecent(int start, int end, int limit) {
+            PriorityQueue<Integer> frontier = new PriorityQueue<>(
+                    (a, b) -> Long.compare(lastUsed.get(latest.get(b)), lastUsed.get(latest.get(a))));
+            int n = labels.length;
+            for (int low = start + n, high = end + n; low < high; low >>>= 1, high >>>= 1) {
+                if ((low & 1) == 1)
+                    frontier.add(low++);
+                if ((high & 1) == 1)
+                    frontier.add(--high);
+            }
+            int[] found = new int[Math.min(limit, end - start)];
+            int count = 0;
+            while (count < found.length && !frontier.isEmpty()) {
+                int node = frontier.poll();
+                if (node >= n) {
+                    found[count++] = node - n;
+                } else {
+                    frontier.add(2 * node);
+                    frontier.add(2 * node + 1);
+                }
+            }
+            return count == found.length ? found : Arrays.copyOf(found, count);
+        }
+
+        private static int later(AtomicLongArray lastUsed, int a, int b) {
+            return lastUsed.get(a) >= lastUsed.get(b) ? a : b;
+        }
+    }
+
+    private record Suggestion(String label, long lastUsed) {
+    }
+}
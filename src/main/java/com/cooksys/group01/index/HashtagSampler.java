@@ -0,0 +1,54 @@
+package com.cooksys.group01.index;
+
+import com.cooksys.group01.repositories.HashtagRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/* Dense array of every hashtag id so a uniformly random tag is one array read, whatever the size of the
+table. Removals are only marked, and a marked id is swapped out with the last element the next time it is
+drawn, which keeps both operations constant time without tracking every id's position. */
+@Component
+@RequiredArgsConstructor
+public class HashtagSampler {
+
+    private final HashtagRepository hashtagRepository;
+
+    private long[] ids = new long[1024];
+    private int size;
+    private final Set<Long> removed = new HashSet<>();
+
+    @PostConstruct
+    public void load() {
+        for (Long id : hashtagRepository.getAllIds())
+            add(id);
+    }
+
+    public synchronized void add(long id) {
+        if (size == ids.length)
+            ids = Arrays.copyOf(ids, size * 2);
+        ids[size++] = id;
+    }
+
+    public synchronized void remove(long id) {
+        removed.add(id);
+    }
+
+    public synchronized OptionalLong sample() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (size > 0) {
+            int index = random.nextInt(size);
+            long id = ids[index];
+            if (!removed.remove(id))
+                return OptionalLong.of(id);
+            ids[index] = ids[--size];
+        }
+        return OptionalLong.empty();
+    }
+}
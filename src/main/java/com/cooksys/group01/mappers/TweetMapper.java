@@ -4,6 +4,8 @@ import com.cooksys.group01.dtos.TweetReqDTO;
 import com.cooksys.group01.dtos.TweetRespDTO;
 import com.cooksys.group01.entities.Tweet;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.Named;
 
 import java.util.List;
 
@@ -12,6 +14,11 @@ public interface TweetMapper {
 
     TweetRespDTO entityToDTO(Tweet tweet);
 
+    // For a new tweet whose author is only a reference; named so nested tweets still map their authors
+    @Named("withoutAuthor")
+    @Mapping(target = "author", ignore = true)
+    TweetRespDTO entityToDTOWithoutAuthor(Tweet tweet);
+
     List<TweetRespDTO> entitiesToDTOs(List<Tweet> tweets);
 
     Tweet dtoToEntity(TweetReqDTO tweet);
@@ -0,0 +1,30 @@
+package com.cooksys.group01.migrations;
+
+import com.cooksys.group01.repositories.TweetClosureRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/* Indexes replies written before tweet_closure and conversation_root_id existed. replyToTweet keeps both
+up to date from then on, so once every reply is indexed this does nothing beyond one count on startup. */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConversationClosureBackfill implements ApplicationRunner {
+
+    private final TweetClosureRepository tweetClosureRepository;
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        long unindexed = tweetClosureRepository.countUnindexedReplies();
+        if (unindexed == 0)
+            return;
+        int pairs = tweetClosureRepository.backfillPairs();
+        int roots = tweetClosureRepository.backfillConversationRoots();
+        log.info("Backfilled {} replies: {} closure rows, {} conversation roots", unindexed, pairs, roots);
+    }
+}
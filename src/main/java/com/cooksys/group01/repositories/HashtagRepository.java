@@ -9,11 +9,17 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface HashtagRepository extends JpaRepository<Hashtag, Long> {
+public interface HashtagRepository extends JpaRepository<Hashtag, Long>, HashtagRepositoryCustom {
 
     Optional<Hashtag> findByLabel(String label);
 
-    @Query("select label from Hashtag")
-    List<String> getAllLabels();
+    @Query("select h.label, h.id from Hashtag h")
+    List<Object[]> getAllLabelsAndIds();
+
+    @Query("select h.id from Hashtag h")
+    List<Long> getAllIds();
+
+    @Query("select h.label, h.lastUsed from Hashtag h")
+    List<Object[]> getAllLabelsAndLastUsed();
 
 }
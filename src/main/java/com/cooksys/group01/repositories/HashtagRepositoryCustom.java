@@ -0,0 +1,20 @@
+package com.cooksys.group01.repositories;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface HashtagRepositoryCustom {
+
+    Set<String> insertMissingLabels(Collection<String> labels);
+
+    Map<String, Long> findIdsByLabels(Collection<String> labels);
+
+    void addUsage(List<Usage> usage);
+
+    record Usage(Long hashtagId, Timestamp lastUsed, long uses) {
+    }
+
+}
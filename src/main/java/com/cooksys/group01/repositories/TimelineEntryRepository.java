@@ -0,0 +1,46 @@
+package com.cooksys.group01.repositories;
+
+import com.cooksys.group01.entities.TimelineEntry;
+import com.cooksys.group01.entities.Tweet;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TimelineEntryRepository extends JpaRepository<TimelineEntry, Long> {
+
+    @Query("select t from TimelineEntry e join e.tweet t join fetch t.author " +
+            "where e.ownerId = :ownerId and t.deleted = false " +
+            "and t.id < :id order by t.id desc")
+    List<Tweet> findTimelineBefore(@Param("ownerId") Long ownerId, @Param("id") long id, Pageable pageable);
+
+    @Modifying
+    @Query(value = "INSERT INTO timeline_entry (owner_id, author_id, tweet_id) " +
+            "VALUES (:authorId, :authorId, :tweetId) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int addToOwnTimeline(@Param("authorId") Long authorId, @Param("tweetId") Long tweetId);
+
+    // Pushes a new tweet onto the author's own timeline and the timeline of everyone following them
+    @Modifying
+    @Query(value = "INSERT INTO timeline_entry (owner_id, author_id, tweet_id) " +
+            "SELECT f.follower_id, :authorId, :tweetId FROM followers_following f WHERE f.following_id = :authorId " +
+            "UNION SELECT :authorId, :authorId, :tweetId " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int fanOut(@Param("authorId") Long authorId, @Param("tweetId") Long tweetId);
+
+    @Modifying
+    @Query(value = "INSERT INTO timeline_entry (owner_id, author_id, tweet_id) " +
+            "SELECT :ownerId, t.author, t.id FROM tweet t WHERE t.author = :authorId AND t.deleted = false " +
+            "ORDER BY t.id DESC LIMIT :limit " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int backfill(@Param("ownerId") Long ownerId, @Param("authorId") Long authorId, @Param("limit") int limit);
+
+    @Modifying
+    @Query("delete from TimelineEntry e where e.ownerId = :ownerId and e.authorId = :authorId and e.authorId <> e.ownerId")
+    int prune(@Param("ownerId") Long ownerId, @Param("authorId") Long authorId);
+}
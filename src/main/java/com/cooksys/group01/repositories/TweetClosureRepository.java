@@ -0,0 +1,74 @@
+package com.cooksys.group01.repositories;
+
+import com.cooksys.group01.entities.Tweet;
+import com.cooksys.group01.entities.TweetClosure;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TweetClosureRepository extends JpaRepository<TweetClosure, Long> {
+
+    // The reply sits one level below its parent and one level further below each of the parent's ancestors
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO tweet_closure (ancestor_id, descendant_id, depth) " +
+            "SELECT c.ancestor_id, :replyId, c.depth + 1 FROM tweet_closure c WHERE c.descendant_id = :parentId " +
+            "UNION ALL SELECT :parentId, :replyId, 1 " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int addReply(@Param("replyId") Long replyId, @Param("parentId") Long parentId);
+
+    @Query("select t from TweetClosure c join Tweet t on t.id = c.descendantId join fetch t.author " +
+            "where c.ancestorId = :id and c.depth = 1 and t.deleted = false order by t.id")
+    List<Tweet> findDirectReplies(@Param("id") Long id);
+
+    /* The visible replies of a tweet are its live descendants with no live tweet between them and it: its own
+    live replies, plus the live replies of any deleted reply, which move up in its place. Every tweet between a
+    descendant and the parent is one of the descendant's ancestors at a smaller depth. */
+    String NO_LIVE_TWEET_BETWEEN = "not exists (select m from TweetClosure m join Tweet mt on mt.id = m.ancestorId " +
+            "where m.descendantId = c.descendantId and m.depth < c.depth and mt.deleted = false)";
+
+    @Query("select t from TweetClosure c join Tweet t on t.id = c.descendantId join fetch t.author " +
+            "where c.ancestorId = :parentId and t.deleted = false and t.id < :id and " + NO_LIVE_TWEET_BETWEEN +
+            " order by t.id desc")
+    List<Tweet> findVisibleRepliesBefore(@Param("parentId") Long parentId, @Param("id") long id, Pageable pageable);
+
+    // Rows of (parent id, number of visible replies) for the parents that have any
+    @Query("select c.ancestorId, count(c) from TweetClosure c join Tweet t on t.id = c.descendantId " +
+            "where c.ancestorId in :ids and t.deleted = false and " + NO_LIVE_TWEET_BETWEEN + " group by c.ancestorId")
+    List<Object[]> countVisibleReplies(@Param("ids") Collection<Long> ids);
+
+    @Query("select count(c) from TweetClosure c join Tweet t on t.id = c.descendantId " +
+            "where c.ancestorId = :id and t.deleted = false")
+    long countReplies(@Param("id") Long id);
+
+    // Replies posted before the closure table existed, which the backfill still has to index
+    @Query(value = "SELECT count(*) FROM tweet t WHERE t.in_reply_to IS NOT NULL " +
+            "AND NOT EXISTS (SELECT 1 FROM tweet_closure c WHERE c.descendant_id = t.id)", nativeQuery = true)
+    long countUnindexedReplies();
+
+    // Expands every inReplyTo chain into its ancestor pairs; pairs already in the table are skipped
+    @Modifying
+    @Query(value = "INSERT INTO tweet_closure (ancestor_id, descendant_id, depth) " +
+            "WITH RECURSIVE pairs (ancestor_id, descendant_id, depth) AS (" +
+            "SELECT t.in_reply_to, t.id, 1 FROM tweet t WHERE t.in_reply_to IS NOT NULL " +
+            "UNION ALL SELECT t.in_reply_to, p.descendant_id, p.depth + 1 FROM pairs p " +
+            "JOIN tweet t ON t.id = p.ancestor_id WHERE t.in_reply_to IS NOT NULL) " +
+            "SELECT ancestor_id, descendant_id, depth FROM pairs " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int backfillPairs();
+
+    // A reply's conversation root is its deepest ancestor
+    @Modifying
+    @Query(value = "UPDATE tweet SET conversation_root_id = (SELECT c.ancestor_id FROM tweet_closure c " +
+            "WHERE c.descendant_id = tweet.id ORDER BY c.depth DESC LIMIT 1) " +
+            "WHERE in_reply_to IS NOT NULL AND conversation_root_id IS NULL", nativeQuery = true)
+    int backfillConversationRoots();
+}
@@ -1,8 +1,12 @@
 package com.cooksys.group01.repositories;
 
 import com.cooksys.group01.entities.Tweet;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.sql.Timestamp;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,7 +15,85 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface TweetRepository extends JpaRepository<Tweet, Long> {
 
+    String THREAD_ROW_COLUMNS = "SELECT t.id, t.in_reply_to AS \"parentId\", d.depth, u.username, " +
+            "u.first_name AS \"firstName\", u.last_name AS \"lastName\", u.email, u.phone, u.joined, t.posted, t.content ";
+
+    String THREAD_ROW_JOINS = "JOIN tweet t ON t.id = d.id JOIN user_table u ON u.id = t.author " +
+            "WHERE t.deleted = false AND u.deleted = false ";
+
     Optional<Tweet> findByIdAndDeletedFalse(Long id);
 
-    List<Tweet> findByDeletedFalseOrderByPostedDesc();
+    boolean existsByIdAndDeletedFalse(Long id);
+
+    // Tweet ids are time ordered, so every page below is a seek on the id alone
+    @Query("select t from Tweet t join fetch t.author where t.deleted = false " +
+            "and t.id < :id order by t.id desc")
+    List<Tweet> findAllBefore(@Param("id") long id, Pageable pageable);
+
+    @Query("select t from Tweet t join fetch t.author where t.deleted = false " +
+            "and t.id > :id order by t.id")
+    List<Tweet> findAllAfter(@Param("id") long id, Pageable pageable);
+
+    @Query("select t from Tweet t join fetch t.author where t.author.id = :authorId and t.deleted = false " +
+            "and t.id < :id order by t.id desc")
+    List<Tweet> findByAuthorBefore(@Param("authorId") Long authorId, @Param("id") long id, Pageable pageable);
+
+    @Query("select t from Tweet t join fetch t.author where t.author.id = :authorId and t.deleted = false " +
+            "and t.id > :id order by t.id")
+    List<Tweet> findByAuthorAfter(@Param("authorId") Long authorId, @Param("id") long id, Pageable pageable);
+
+    @Query("select t from Tweet t join t.hashtags h join fetch t.author a where h.id = :hashtagId and t.deleted = false " +
+            "and a.deleted = false and t.id < :id order by t.id desc")
+    List<Tweet> findByHashtagBefore(@Param("hashtagId") Long hashtagId, @Param("id") long id, Pageable pageable);
+
+    @Query("select t from Tweet t join t.hashtags h join fetch t.author a where h.id = :hashtagId and t.deleted = false " +
+            "and a.deleted = false and t.id > :id order by t.id")
+    List<Tweet> findByHashtagAfter(@Param("hashtagId") Long hashtagId, @Param("id") long id, Pageable pageable);
+
+    @Query("select t from User u join u.mentionedTweets t join fetch t.author where u.id = :userId and t.deleted = false " +
+            "and t.id < :id order by t.id desc")
+    List<Tweet> findMentionsBefore(@Param("userId") Long userId, @Param("id") long id, Pageable pageable);
+
+    @Query("select t from User u join u.mentionedTweets t join fetch t.author where u.id = :userId and t.deleted = false " +
+            "and t.id > :id order by t.id")
+    List<Tweet> findMentionsAfter(@Param("userId") Long userId, @Param("id") long id, Pageable pageable);
+
+    @Query("select t from Tweet t join fetch t.author where t.repostOf.id = :tweetId and t.deleted = false " +
+            "and t.id < :id order by t.id desc")
+    List<Tweet> findRepostsBefore(@Param("tweetId") Long tweetId, @Param("id") long id, Pageable pageable);
+
+    @Query("select t from Tweet t join fetch t.author where t.repostOf.id = :tweetId and t.deleted = false " +
+            "and t.id > :id order by t.id")
+    List<Tweet> findRepostsAfter(@Param("tweetId") Long tweetId, @Param("id") long id, Pageable pageable);
+
+    // A tweet's ancestors from the closure table, nearest parent first, for at most maxDepth levels
+    @Query(value = THREAD_ROW_COLUMNS + "FROM (SELECT c.ancestor_id AS id, c.depth FROM tweet_closure c " +
+            "WHERE c.descendant_id = :id AND c.depth <= :maxDepth) d " + THREAD_ROW_JOINS + "ORDER BY d.depth",
+            nativeQuery = true)
+    List<ThreadRow> findAncestors(@Param("id") Long id, @Param("maxDepth") int maxDepth);
+
+    // One tweet of a conversation with its author, flattened so a whole thread is read in a single query
+    interface ThreadRow {
+        Long getId();
+
+        Long getParentId();
+
+        Integer getDepth();
+
+        String getUsername();
+
+        String getFirstName();
+
+        String getLastName();
+
+        String getEmail();
+
+        String getPhone();
+
+        Timestamp getJoined();
+
+        Timestamp getPosted();
+
+        String getContent();
+    }
 }
@@ -0,0 +1,43 @@
+package com.cooksys.group01.repositories;
+
+import com.cooksys.group01.entities.TweetStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TweetStatsRepository extends JpaRepository<TweetStats, Long>, TweetStatsRepositoryCustom {
+
+    @Modifying
+    @Query(value = "INSERT INTO tweet_stats (tweet_id, like_count, reply_count, repost_count, mention_count) " +
+            "VALUES (:tweetId, 0, 0, 0, :mentions) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int create(@Param("tweetId") Long tweetId, @Param("mentions") long mentions);
+
+    // Each counter is moved by a single UPDATE, so concurrent changes never overwrite one another; likes are
+    // moved in batches through TweetStatsRepositoryCustom
+
+    @Modifying
+    @Query("update TweetStats s set s.replyCount = s.replyCount + :delta where s.tweetId = :tweetId")
+    int addReplies(@Param("tweetId") Long tweetId, @Param("delta") long delta);
+
+    @Modifying
+    @Query("update TweetStats s set s.repostCount = s.repostCount + :delta where s.tweetId = :tweetId")
+    int addReposts(@Param("tweetId") Long tweetId, @Param("delta") long delta);
+
+    @Modifying
+    @Query(value = "INSERT INTO tweet_stats (tweet_id, like_count, reply_count, repost_count, mention_count) " +
+            "SELECT t.id, 0, 0, 0, 0 FROM tweet t ON CONFLICT DO NOTHING", nativeQuery = true)
+    int createMissing();
+
+    // Recounts every row from the join tables and tweet table, which the counters are derived from
+    @Modifying
+    @Query(value = "UPDATE tweet_stats SET " +
+            "like_count = (SELECT count(*) FROM user_likes l WHERE l.tweet_id = tweet_stats.tweet_id), " +
+            "reply_count = (SELECT count(*) FROM tweet r WHERE r.in_reply_to = tweet_stats.tweet_id AND r.deleted = false), " +
+            "repost_count = (SELECT count(*) FROM tweet r WHERE r.repost_of = tweet_stats.tweet_id AND r.deleted = false), " +
+            "mention_count = (SELECT count(*) FROM user_mentions m WHERE m.tweet_id = tweet_stats.tweet_id)",
+            nativeQuery = true)
+    int recount();
+}
@@ -0,0 +1,9 @@
+package com.cooksys.group01.repositories;
+
+import java.util.Map;
+
+public interface TweetStatsRepositoryCustom {
+
+    void addLikes(Map<Long, Long> likesByTweet);
+
+}
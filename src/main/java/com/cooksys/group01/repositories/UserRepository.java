@@ -2,15 +2,21 @@ package com.cooksys.group01.repositories;
 
 import com.cooksys.group01.entities.User;
 import com.cooksys.group01.entities.embeddable.Credentials;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
 
     Optional<User> findByCredentialsUsernameAndCredentialsPasswordAndDeletedFalse(String username, String password);
 
@@ -22,4 +28,45 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     List<User> findAllByDeletedFalse();
 
+    // Rows of id and username for the active accounts among the given usernames
+    @Query("select u.id, u.credentials.username from User u where u.credentials.username in :usernames and u.deleted = false")
+    List<Object[]> findIdsByUsernames(@Param("usernames") Collection<String> usernames);
+
+    @Query("select u.id from User u where u.deleted = true")
+    List<Long> findDeletedIds();
+
+    @Query("select u from User u join u.likedTweets t where t.id = :tweetId and u.deleted = false and u.id < :id order by u.id desc")
+    List<User> findLikersBefore(@Param("tweetId") Long tweetId, @Param("id") long id, Pageable pageable);
+
+    @Query("select u from User u join u.likedTweets t where t.id = :tweetId and u.deleted = false and u.id > :id order by u.id")
+    List<User> findLikersAfter(@Param("tweetId") Long tweetId, @Param("id") long id, Pageable pageable);
+
+    // Returns 1 when the like is new and 0 when the unique (tweet_id, user_id) index already has it
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO user_likes (user_id, tweet_id) VALUES (:userId, :tweetId) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int addLike(@Param("userId") Long userId, @Param("tweetId") Long tweetId);
+
+    // Returns 1 when the follow is new and 0 when the unique (following_id, follower_id) index already has it
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO followers_following (following_id, follower_id) VALUES (:followedId, :followerId) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int addFollow(@Param("followerId") Long followerId, @Param("followedId") Long followedId);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM followers_following WHERE following_id = :followedId AND follower_id = :followerId",
+            nativeQuery = true)
+    int removeFollow(@Param("followerId") Long followerId, @Param("followedId") Long followedId);
+
+    // Resolves every mentioned username and writes the join rows in one statement, without loading any user
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO user_mentions (user_id, tweet_id) " +
+            "SELECT u.id, :tweetId FROM user_table u WHERE u.username IN (:usernames) AND u.deleted = false",
+            nativeQuery = true)
+    int addMentions(@Param("tweetId") Long tweetId, @Param("usernames") Collection<String> usernames);
+
 }
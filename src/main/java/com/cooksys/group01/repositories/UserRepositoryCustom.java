@@ -0,0 +1,27 @@
+package com.cooksys.group01.repositories;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface UserRepositoryCustom {
+
+    @FunctionalInterface
+    interface FollowHandler {
+        void follow(long followerId, long followedId);
+    }
+
+    /* Streams every row of followers_following without materialising the table. Postgres only honours the
+    fetch size with autocommit off, hence the transaction. */
+    @Transactional(readOnly = true)
+    void forEachFollow(FollowHandler handler);
+
+    /* One JDBC batch each, returning a row count per followed id: 0 where the follow already existed, or
+    where there was none to delete */
+    @Transactional
+    int[] addFollows(long followerId, List<Long> followedIds);
+
+    @Transactional
+    int[] removeFollows(long followerId, List<Long> followedIds);
+
+}
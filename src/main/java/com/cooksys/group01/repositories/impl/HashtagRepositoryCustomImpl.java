@@ -0,0 +1,73 @@
+package com.cooksys.group01.repositories.impl;
+
+import com.cooksys.group01.entities.Hashtag;
+import com.cooksys.group01.repositories.HashtagRepositoryCustom;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.*;
+
+@RequiredArgsConstructor
+public class HashtagRepositoryCustomImpl implements HashtagRepositoryCustom {
+
+    /* ON CONFLICT DO NOTHING is understood by Postgres and by H2 running in PostgreSQL mode for tests. Ids are
+    not drawn from hashtag_seq here: Hibernate's pooled optimizer hands out a block of ids around every value it
+    takes from the sequence, so a raw nextval can return one of them. They come from the entity's own generator
+    instead, the same one persist uses, and a label that turns out to exist already just wastes its id. */
+    private static final String INSERT_LABEL = "INSERT INTO hashtag (id, label, first_used, last_used, use_count) "
+            + "VALUES (?, ?, ?, ?, 0) ON CONFLICT DO NOTHING";
+
+    private static final String ADD_USAGE =
+            "UPDATE hashtag SET last_used = GREATEST(last_used, ?), use_count = use_count + ? WHERE id = ?";
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /* Inserts every label in one JDBC batch, skipping labels that already exist (for example when another
+    request created it first), and returns the labels this call actually inserted. The rows commit or roll back
+    with the tweet that uses them, on the caller's connection. */
+    @Override
+    @Transactional
+    public Set<String> insertMissingLabels(Collection<String> labels) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        IdentifierGenerator ids = (IdentifierGenerator) session.getFactory().getMappingMetamodel()
+                .getEntityDescriptor(Hashtag.class).getGenerator();
+        List<String> ordered = new ArrayList<>(labels);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> rows = new ArrayList<>();
+        for (String label : ordered)
+            rows.add(new Object[]{ids.generate(session, null), label, now, now});
+        int[] inserted = jdbcTemplate.batchUpdate(INSERT_LABEL, rows);
+        Set<String> created = new HashSet<>();
+        for (int i = 0; i < inserted.length; i++)
+            if (inserted[i] != 0)
+                created.add(ordered.get(i));
+        return created;
+    }
+
+    @Override
+    public Map<String, Long> findIdsByLabels(Collection<String> labels) {
+        Map<String, Long> ids = new HashMap<>();
+        namedParameterJdbcTemplate.query("SELECT id, label FROM hashtag WHERE label IN (:labels)",
+                Map.of("labels", labels),
+                resultSet -> {
+                    ids.put(resultSet.getString("label"), resultSet.getLong("id"));
+                });
+        return ids;
+    }
+
+    @Override
+    public void addUsage(List<Usage> usage) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Usage tagUsage : usage)
+            rows.add(new Object[]{tagUsage.lastUsed(), tagUsage.uses(), tagUsage.hashtagId()});
+        jdbcTemplate.batchUpdate(ADD_USAGE, rows);
+    }
+}
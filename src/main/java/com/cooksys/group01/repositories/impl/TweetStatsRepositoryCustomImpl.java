@@ -0,0 +1,25 @@
+package com.cooksys.group01.repositories.impl;
+
+import com.cooksys.group01.repositories.TweetStatsRepositoryCustom;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class TweetStatsRepositoryCustomImpl implements TweetStatsRepositoryCustom {
+
+    private static final String ADD_LIKES = "UPDATE tweet_stats SET like_count = like_count + ? WHERE tweet_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void addLikes(Map<Long, Long> likesByTweet) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Map.Entry<Long, Long> likes : likesByTweet.entrySet())
+            rows.add(new Object[]{likes.getValue(), likes.getKey()});
+        jdbcTemplate.batchUpdate(ADD_LIKES, rows);
+    }
+}
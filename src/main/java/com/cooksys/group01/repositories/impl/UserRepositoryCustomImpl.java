@@ -0,0 +1,51 @@
+package com.cooksys.group01.repositories.impl;
+
+import com.cooksys.group01.repositories.UserRepositoryCustom;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private static final String ALL_FOLLOWS = "SELECT follower_id, following_id FROM followers_following";
+
+    private static final String ADD_FOLLOW =
+            "INSERT INTO followers_following (following_id, follower_id) VALUES (?, ?) ON CONFLICT DO NOTHING";
+
+    private static final String REMOVE_FOLLOW =
+            "DELETE FROM followers_following WHERE following_id = ? AND follower_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void forEachFollow(FollowHandler handler) {
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(ALL_FOLLOWS);
+            statement.setFetchSize(10_000);
+            return statement;
+        }, resultSet -> {
+            handler.follow(resultSet.getLong(1), resultSet.getLong(2));
+        });
+    }
+
+    @Override
+    public int[] addFollows(long followerId, List<Long> followedIds) {
+        return jdbcTemplate.batchUpdate(ADD_FOLLOW, rows(followerId, followedIds));
+    }
+
+    @Override
+    public int[] removeFollows(long followerId, List<Long> followedIds) {
+        return jdbcTemplate.batchUpdate(REMOVE_FOLLOW, rows(followerId, followedIds));
+    }
+
+    // HELPER FUNCTIONS
+    private static List<Object[]> rows(long followerId, List<Long> followedIds) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Long followedId : followedIds)
+            rows.add(new Object[]{followedId, followerId});
+        return rows;
+    }
+}
@@ -3,6 +3,7 @@ package com.cooksys.group01.services;
 import java.util.List;
 
 import com.cooksys.group01.dtos.HashtagDTO;
+import com.cooksys.group01.dtos.PageDTO;
 import com.cooksys.group01.dtos.TweetRespDTO;
 
 public interface HashtagService {
@@ -11,7 +12,9 @@ public interface HashtagService {
   
     HashtagDTO getRandomHashtag();
 
-    List<TweetRespDTO> getTweetsByTag(String label);
+    List<String> suggestTags(String prefix, Integer limit);
+
+    PageDTO<TweetRespDTO> getTweetsByTag(String label, Integer limit, String before, String after);
 
 
 }
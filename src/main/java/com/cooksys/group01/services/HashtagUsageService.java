@@ -0,0 +1,11 @@
+package com.cooksys.group01.services;
+
+import java.util.Collection;
+
+public interface HashtagUsageService {
+
+    void recordUse(Collection<Long> hashtagIds);
+
+    void flush();
+
+}
@@ -0,0 +1,26 @@
+package com.cooksys.group01.services;
+
+import com.cooksys.group01.dtos.CredentialsDTO;
+import com.cooksys.group01.dtos.SessionDTO;
+import com.cooksys.group01.dtos.UserRespDTO;
+
+public interface SessionService {
+
+    // author is the user as of login or their last profile update, so a write can be answered without loading them
+    record Principal(Long userId, String username, UserRespDTO author) {
+    }
+
+    SessionDTO login(CredentialsDTO credentials);
+
+    void logout(String authorization);
+
+    // The user behind a Bearer Authorization header, or null when the request did not send one
+    Principal principal(String authorization);
+
+    void revokeUser(Long userId);
+
+    void refreshUser(Long userId, UserRespDTO user);
+
+    void evictExpired();
+
+}
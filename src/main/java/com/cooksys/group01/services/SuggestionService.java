@@ -0,0 +1,15 @@
+package com.cooksys.group01.services;
+
+import com.cooksys.group01.dtos.SuggestionDTO;
+
+import java.util.List;
+
+public interface SuggestionService {
+
+    List<SuggestionDTO> getSuggestions(Long userId, int limit);
+
+    void invalidate(Long userId);
+
+    void evictExpired();
+
+}
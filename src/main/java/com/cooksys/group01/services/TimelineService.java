@@ -0,0 +1,19 @@
+package com.cooksys.group01.services;
+
+import com.cooksys.group01.entities.Tweet;
+import com.cooksys.group01.entities.User;
+import com.cooksys.group01.utils.Cursor;
+
+import java.util.List;
+
+public interface TimelineService {
+
+    void fanOut(Tweet tweet);
+
+    void backfill(Long followerId, Long followedId);
+
+    void prune(Long followerId, Long unfollowedId);
+
+    List<Tweet> getTimeline(User owner, Cursor cursor, int limit);
+
+}
@@ -0,0 +1,14 @@
+package com.cooksys.group01.services;
+
+import com.cooksys.group01.dtos.TrendingHashtagDTO;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface TrendingService {
+
+    void recordUse(Collection<String> labels);
+
+    List<TrendingHashtagDTO> getTrending(String window, Integer limit);
+
+}
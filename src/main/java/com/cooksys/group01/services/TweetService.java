@@ -10,7 +10,7 @@ public interface TweetService {
 
     TweetRespDTO deleteTweetById(Long id);
 
-    List<TweetRespDTO> getAllTweets();
+    PageDTO<TweetRespDTO> getAllTweets(Integer limit, String before, String after);
 
     TweetRespDTO getTweetById(Long id);
 
@@ -18,20 +18,25 @@ public interface TweetService {
 
     List<TweetRespDTO> getRepliesById(Long id);
 
-    List<TweetRespDTO> getRepostsById(Long id);
+    PageDTO<TweetRespDTO> getRepostsById(Long id, Integer limit, String before, String after);
 
-    List<UserRespDTO> getUsersByLikedTweet(Long id);
+    PageDTO<UserRespDTO> getUsersByLikedTweet(Long id, Integer limit, String before, String after);
 
     List<HashtagDTO> getTagsByTweetId(Long id);
 
     ContextRespDTO getContextById(Long id);
 
-    TweetRespDTO createTweet(TweetReqDTO tweet);
+    ThreadSizeDTO getThreadSize(Long id);
 
-    ResponseEntity<HttpStatus> likeTweet(Long id, CredentialsDTO credentials);
+    PageDTO<ReplyNodeDTO> getReplyTree(Long id, Integer limit, String cursor);
 
-	TweetRespDTO repostById(Long id, CredentialsDTO credentials);
+    // Each write accepts a Bearer token in authorization, or credentials in the body when there is none
+    TweetRespDTO createTweet(TweetReqDTO tweet, String authorization);
 
-    TweetRespDTO replyToTweet(Long id, TweetReqDTO tweet);
+    ResponseEntity<HttpStatus> likeTweet(Long id, CredentialsDTO credentials, String authorization);
+
+	TweetRespDTO repostById(Long id, CredentialsDTO credentials, String authorization);
+
+    TweetRespDTO replyToTweet(Long id, TweetReqDTO tweet, String authorization);
 
 }
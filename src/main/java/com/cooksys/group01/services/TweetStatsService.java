@@ -0,0 +1,22 @@
+package com.cooksys.group01.services;
+
+import com.cooksys.group01.dtos.TweetRespDTO;
+import com.cooksys.group01.entities.Tweet;
+
+import java.util.Collection;
+
+public interface TweetStatsService {
+
+    void tweetCreated(Tweet tweet, long mentions);
+
+    void tweetDeleted(Tweet tweet);
+
+    void recordLike(Long tweetId);
+
+    void flushLikes();
+
+    void fillCounts(Collection<TweetRespDTO> tweets);
+
+    void repair();
+
+}
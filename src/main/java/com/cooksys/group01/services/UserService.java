@@ -1,6 +1,11 @@
 package com.cooksys.group01.services;
 
+import com.cooksys.group01.dtos.BulkFollowReqDTO;
 import com.cooksys.group01.dtos.CredentialsDTO;
+import com.cooksys.group01.dtos.FollowResultDTO;
+import com.cooksys.group01.dtos.PageDTO;
+import com.cooksys.group01.dtos.RelationshipDTO;
+import com.cooksys.group01.dtos.SuggestionDTO;
 import com.cooksys.group01.dtos.TweetRespDTO;
 import com.cooksys.group01.dtos.UserReqDTO;
 import com.cooksys.group01.dtos.UserRespDTO;
@@ -16,22 +21,29 @@ public interface UserService {
 
     UserRespDTO createUser(UserReqDTO user);
 
-    List<UserRespDTO> getFollowers(String username);
+    PageDTO<UserRespDTO> getFollowers(String username, Integer limit, String before, String after);
 
-    List<UserRespDTO> getFollowing(String username);
+    PageDTO<UserRespDTO> getFollowing(String username, Integer limit, String before, String after);
 
-    List<TweetRespDTO> getMentions(String username);
+    List<SuggestionDTO> getSuggestions(String username, Integer limit);
 
-    void followUser(String username, Credentials credentials);
+    List<RelationshipDTO> getRelationships(String username, List<String> with);
 
-    void unfollowUser(String username, Credentials credentials);
+    PageDTO<TweetRespDTO> getMentions(String username, Integer limit, String before, String after);
 
-    List<TweetRespDTO> getUserTweets(String username);
+    // Writes accept a Bearer token in authorization, or credentials in the body when there is none
+    void followUser(String username, Credentials credentials, String authorization);
 
-    List<TweetRespDTO> getFeed(String username);
+    void unfollowUser(String username, Credentials credentials, String authorization);
 
-    UserRespDTO updateUser(String username, UserReqDTO user);
+    List<FollowResultDTO> bulkFollow(String username, BulkFollowReqDTO request, String authorization);
 
-    UserRespDTO deleteUser(String username, CredentialsDTO credentials);
+    PageDTO<TweetRespDTO> getUserTweets(String username, Integer limit, String before, String after);
+
+    PageDTO<TweetRespDTO> getFeed(String username, Integer limit, String cursor);
+
+    UserRespDTO updateUser(String username, UserReqDTO user, String authorization);
+
+    UserRespDTO deleteUser(String username, CredentialsDTO credentials, String authorization);
 
 }
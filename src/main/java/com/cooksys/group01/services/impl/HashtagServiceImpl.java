@@ -1,35 +1,41 @@
 package com.cooksys.group01.services.impl;
 
 import com.cooksys.group01.dtos.HashtagDTO;
+import com.cooksys.group01.dtos.PageDTO;
 import com.cooksys.group01.dtos.TweetRespDTO;
 import com.cooksys.group01.entities.Hashtag;
 import com.cooksys.group01.entities.Tweet;
-import com.cooksys.group01.entities.User;
 import com.cooksys.group01.exceptions.NotFoundException;
+import com.cooksys.group01.index.HashtagPrefixIndex;
+import com.cooksys.group01.index.HashtagSampler;
 import com.cooksys.group01.mappers.HashtagMapper;
 import com.cooksys.group01.mappers.TweetMapper;
-import com.cooksys.group01.mappers.UserMapper;
 import com.cooksys.group01.repositories.HashtagRepository;
 import com.cooksys.group01.repositories.TweetRepository;
-import com.cooksys.group01.repositories.UserRepository;
 import com.cooksys.group01.services.HashtagService;
+import com.cooksys.group01.services.TweetStatsService;
+import com.cooksys.group01.utils.Cursor;
+import com.cooksys.group01.utils.Pagination;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.Random;
+import java.util.OptionalLong;
 
 @Service
 @RequiredArgsConstructor
 public class HashtagServiceImpl implements HashtagService {
 
     private final HashtagRepository hashtagRepository;
+    private final HashtagSampler hashtagSampler;
+    private final HashtagPrefixIndex hashtagPrefixIndex;
+    private final TweetStatsService tweetStatsService;
     private final HashtagMapper hashtagMapper;
     private final TweetRepository tweetRepository;
     private final TweetMapper tweetMapper;
-    private final UserRepository userRepository;
 
     @Override
     public List<HashtagDTO> getAllTags() {
@@ -42,41 +48,53 @@ public class HashtagServiceImpl implements HashtagService {
 
     @Override
     public HashtagDTO getRandomHashtag() {
-        List<Hashtag> tags = hashtagRepository.findAll();
-        return hashtagMapper.entityToDTO(tags.get(new Random().nextInt(tags.size())));
+        OptionalLong id = hashtagSampler.sample();
+        while(id.isPresent()) {
+            Optional<Hashtag> opHashtag = hashtagRepository.findById(id.getAsLong());
+            if(opHashtag.isPresent()) {
+                return hashtagMapper.entityToDTO(opHashtag.get());
+            }
+            // The tag is gone from the table, so stop drawing it
+            hashtagSampler.remove(id.getAsLong());
+            id = hashtagSampler.sample();
+        }
+        throw new NotFoundException("No Hashtags Exist!");
     }
     @Override
-    public List<TweetRespDTO> getTweetsByTag(String label) {
+    public List<String> suggestTags(String prefix, Integer limit) {
+        List<String> suggestions = new ArrayList<>();
+        for (String label : hashtagPrefixIndex.suggest("#" + prefix, Pagination.limit(limit))) {
+            suggestions.add(label.substring(1));
+        }
+        return suggestions;
+    }
+
+    @Override
+    public PageDTO<TweetRespDTO> getTweetsByTag(String label, Integer limit, String before, String after) {
 
         Optional<Hashtag> opHashtag = hashtagRepository.findByLabel("#" + label);
         if(opHashtag.isEmpty()) {
             throw new NotFoundException("No Hashtag with the label #" + label + " Found!");
         }
 
-        List<Tweet> tweets = tweetRepository.findByDeletedFalseOrderByPostedDesc();
-        List<TweetRespDTO> tweetsWithTag = new ArrayList<>();
-
-        for(Tweet tweet : tweets) {
-            String[] content = tweet.getContent().split(" ");
-            Optional<User> opUser = userRepository.findByCredentialsUsernameAndDeletedFalse(tweet.getAuthor().getCredentials().getUsername());
-            if(opUser.isEmpty()) {
-                break;
-            }
+        // tweet_hashtags is the tag's posting list, read through its (hashtag_id, tweet_id) index instead of scanning content
+        Long hashtagId = opHashtag.get().getId();
+        int pageSize = Pagination.limit(limit);
+        List<Tweet> tagged = Pagination.fetch(before, after,
+                cursor -> tweetRepository.findByHashtagBefore(hashtagId, cursor.getId(), PageRequest.of(0, pageSize)),
+                cursor -> tweetRepository.findByHashtagAfter(hashtagId, cursor.getId(), PageRequest.of(0, pageSize)));
 
-            User user = opUser.get();
-            for(String word : content) {
-                if(word.startsWith("#") && word.substring(1).equals(label)) {
-                    TweetRespDTO tweetRespDTO = tweetMapper.entityToDTO(tweet);
-                    tweetRespDTO.getAuthor().setUsername(user.getCredentials().getUsername());
-                    tweetsWithTag.add(tweetRespDTO);
-                }
-            }
-        }
-
-        if(tweetsWithTag.isEmpty()) {
+        if(tagged.isEmpty() && before == null && after == null) {
             throw new NotFoundException("No Tweets With The Hashtag #" + label + " Exists!");
         }
-        return tweetsWithTag;
+        List<TweetRespDTO> tweetsWithTag = new ArrayList<>();
+        for(Tweet tweet : tagged) {
+            TweetRespDTO tweetRespDTO = tweetMapper.entityToDTO(tweet);
+            tweetRespDTO.getAuthor().setUsername(tweet.getAuthor().getCredentials().getUsername());
+            tweetsWithTag.add(tweetRespDTO);
+        }
+        tweetStatsService.fillCounts(tweetsWithTag);
+        return new PageDTO<>(tweetsWithTag, Pagination.nextCursor(tagged, pageSize, after != null, Cursor::of));
     }
 
 }
@@ -0,0 +1,78 @@
+package com.cooksys.group01.services.impl;
+
+import com.cooksys.group01.repositories.HashtagRepository;
+import com.cooksys.group01.repositories.HashtagRepositoryCustom.Usage;
+import com.cooksys.group01.services.HashtagUsageService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/* Popular tags would otherwise have their row updated by every tweet that uses them. Uses are instead
+coalesced in memory per tag (latest use time and a count) and written out in one batched UPDATE on a
+fixed delay, so posting throughput no longer depends on how hot a tag is. */
+@Service
+@RequiredArgsConstructor
+public class HashtagUsageServiceImpl implements HashtagUsageService {
+
+    private final HashtagRepository hashtagRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Long, Usage> pending = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("hashtags.usage.pending", pending, Map::size).register(meterRegistry);
+    }
+
+    @Override
+    public void recordUse(Collection<Long> hashtagIds) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (Long id : hashtagIds)
+            pending.merge(id, new Usage(id, now, 1), this::combine);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${hashtags.usage-flush-ms:1000}")
+    public void flush() {
+        List<Usage> batch = new ArrayList<>();
+        // Removing key by key means a use recorded mid-flush simply starts a new entry for the next flush
+        for (Long id : pending.keySet()) {
+            Usage usage = pending.remove(id);
+            if (usage != null)
+                batch.add(usage);
+        }
+        if (batch.isEmpty())
+            return;
+        try {
+            hashtagRepository.addUsage(batch);
+            meterRegistry.counter("hashtags.usage.flushed").increment(batch.size());
+        } catch (DataAccessException e) {
+            for (Usage usage : batch)
+                pending.merge(usage.hashtagId(), usage, this::combine);
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // HELPER FUNCTIONS
+    private Usage combine(Usage a, Usage b) {
+        Timestamp latest = a.lastUsed().after(b.lastUsed()) ? a.lastUsed() : b.lastUsed();
+        return new Usage(a.hashtagId(), latest, a.uses() + b.uses());
+    }
+}
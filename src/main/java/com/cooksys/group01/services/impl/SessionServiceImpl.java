@@ -0,0 +1,154 @@
+package com.cooksys.group01.services.impl;
+
+import com.cooksys.group01.dtos.CredentialsDTO;
+import com.cooksys.group01.dtos.SessionDTO;
+import com.cooksys.group01.dtos.UserRespDTO;
+import com.cooksys.group01.entities.User;
+import com.cooksys.group01.exceptions.NotAuthorizedException;
+import com.cooksys.group01.mappers.UserMapper;
+import com.cooksys.group01.repositories.UserRepository;
+import com.cooksys.group01.services.SessionService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/* Opaque tokens issued at login, held only in memory, so a request carrying one is authenticated with a map
+lookup instead of a credentials query. Every token lives for sessions.ttl-ms from login, which makes issue
+order the same as expiry order: a queue of tokens in that order is all that is needed both to drop expired
+tokens and, once sessions.max-tokens are held, to drop the oldest. Tokens do not survive a restart and are
+only known to the instance that issued them. */
+@Service
+@RequiredArgsConstructor
+public class SessionServiceImpl implements SessionService {
+
+    private static final String BEARER = "Bearer ";
+    private static final int TOKEN_BYTES = 32;
+
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final MeterRegistry meterRegistry;
+
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    // Every issued token, oldest first; some may already be gone from sessions after a logout
+    private final Queue<String> issued = new ConcurrentLinkedQueue<>();
+
+    @Value("${sessions.ttl-ms:3600000}")
+    private long ttlMillis;
+
+    @Value("${sessions.max-tokens:100000}")
+    private int maxTokens;
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("sessions.active", sessions, Map::size).register(meterRegistry);
+    }
+
+    @Override
+    public SessionDTO login(CredentialsDTO credentials) {
+        if (credentials == null || credentials.getUsername() == null || credentials.getPassword() == null)
+            throw new NotAuthorizedException("Invalid Credentials!");
+        Optional<User> opUser = userRepository.findByCredentialsUsernameAndCredentialsPasswordAndDeletedFalse(
+                credentials.getUsername(), credentials.getPassword());
+        if (opUser.isEmpty())
+            throw new NotAuthorizedException("Invalid Credentials!");
+
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        User user = opUser.get();
+        UserRespDTO author = userMapper.entityToDTO(user);
+        author.setUsername(user.getCredentials().getUsername());
+        sessions.put(token, new Session(user.getId(), credentials.getUsername(), author, expiresAt));
+        issued.add(token);
+        // Polling is serialized so a token taken off the queue is always the one removed from the map
+        synchronized (issued) {
+            while (sessions.size() > maxTokens) {
+                String oldest = issued.poll();
+                if (oldest == null)
+                    break;
+                if (sessions.remove(oldest) != null)
+                    meterRegistry.counter("sessions.evicted").increment();
+            }
+        }
+        return new SessionDTO(token, new Timestamp(expiresAt));
+    }
+
+    @Override
+    public void logout(String authorization) {
+        String token = token(authorization);
+        if (token == null || sessions.remove(token) == null)
+            throw new NotAuthorizedException("Invalid Token");
+    }
+
+    @Override
+    public Principal principal(String authorization) {
+        if (authorization == null)
+            return null;
+        String token = token(authorization);
+        Session session = token == null ? null : sessions.get(token);
+        if (session == null || session.expiresAt < System.currentTimeMillis())
+            throw new NotAuthorizedException("Invalid Or Expired Token");
+        return new Principal(session.userId, session.username, copy(session.author));
+    }
+
+    // Deleting an account ends its sessions; this walks every session, which is fine for something so rare
+    @Override
+    public void revokeUser(Long userId) {
+        sessions.values().removeIf(session -> session.userId.equals(userId));
+    }
+
+    // Keeps the author handed to writes in step with a profile update; walks every session like revokeUser
+    @Override
+    public void refreshUser(Long userId, UserRespDTO user) {
+        UserRespDTO author = copy(user);
+        sessions.replaceAll((token, session) -> session.userId.equals(userId)
+                ? new Session(session.userId, session.username, author, session.expiresAt) : session);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${sessions.evict-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        synchronized (issued) {
+            String oldest;
+            while ((oldest = issued.peek()) != null) {
+                Session session = sessions.get(oldest);
+                if (session != null && session.expiresAt >= now)
+                    return;
+                issued.poll();
+                if (session != null)
+                    sessions.remove(oldest, session);
+            }
+        }
+    }
+
+    // HELPER FUNCTIONS
+    private static String token(String authorization) {
+        if (authorization == null || !authorization.startsWith(BEARER))
+            return null;
+        return authorization.substring(BEARER.length()).trim();
+    }
+
+    // Callers get their own copy, since they may set fields on the DTO they return
+    private static UserRespDTO copy(UserRespDTO user) {
+        return new UserRespDTO(user.getUsername(), user.getProfile(), user.getJoined());
+    }
+
+    private record Session(Long userId, String username, UserRespDTO author, long expiresAt) {
+    }
+}
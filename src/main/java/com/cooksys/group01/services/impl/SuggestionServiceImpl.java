@@ -0,0 +1,94 @@
+package com.cooksys.group01.services.impl;
+
+import com.cooksys.group01.dtos.SuggestionDTO;
+import com.cooksys.group01.dtos.UserRespDTO;
+import com.cooksys.group01.entities.User;
+import com.cooksys.group01.index.FollowGraph;
+import com.cooksys.group01.mappers.UserMapper;
+import com.cooksys.group01.repositories.UserRepository;
+import com.cooksys.group01.services.SuggestionService;
+import com.cooksys.group01.utils.MergeCount;
+import com.cooksys.group01.utils.Pagination;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/* Ranks accounts by how many of the user's followees follow them. Every followee's following array is
+counted together on the common fork-join pool, then the user, accounts they already follow and deleted
+accounts are dropped while keeping the best Pagination.MAX_LIMIT. That ranking is cached per user for
+users.suggestions-ttl-ms and dropped early when the user follows someone. */
+@Service
+@RequiredArgsConstructor
+public class SuggestionServiceImpl implements SuggestionService {
+
+    private final FollowGraph followGraph;
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+
+    private final Map<Long, Ranking> rankings = new ConcurrentHashMap<>();
+
+    @Value("${users.suggestions-ttl-ms:300000}")
+    private long ttlMillis;
+
+    @Override
+    public List<SuggestionDTO> getSuggestions(Long userId, int limit) {
+        long now = System.currentTimeMillis();
+        Ranking ranking = rankings.get(userId);
+        if (ranking == null || ranking.expiresAt < now) {
+            ranking = new Ranking(rank(userId), now + ttlMillis);
+            rankings.put(userId, ranking);
+        }
+
+        MergeCount.Counts top = ranking.top;
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < top.size() && i < limit; i++)
+            ids.add(top.ids()[i]);
+        Map<Long, User> users = new HashMap<>();
+        for (User user : userRepository.findAllById(ids))
+            users.put(user.getId(), user);
+
+        List<SuggestionDTO> suggestions = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            User user = users.get(ids.get(i));
+            // Deleted since the ranking was cached
+            if (user == null || user.isDeleted())
+                continue;
+            UserRespDTO userDTO = userMapper.entityToDTO(user);
+            userDTO.setUsername(user.getCredentials().getUsername());
+            suggestions.add(new SuggestionDTO(userDTO, top.counts()[i]));
+        }
+        return suggestions;
+    }
+
+    @Override
+    public void invalidate(Long userId) {
+        rankings.remove(userId);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${users.suggestions-ttl-ms:300000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        rankings.values().removeIf(ranking -> ranking.expiresAt < now);
+    }
+
+    // HELPER FUNCTIONS
+    private MergeCount.Counts rank(long userId) {
+        long[] followees = followGraph.following(userId);
+        List<long[]> followeesFollowing = new ArrayList<>(followees.length);
+        for (long followee : followees)
+            followeesFollowing.add(followGraph.following(followee));
+        MergeCount.Counts counts = MergeCount.count(followeesFollowing, ForkJoinPool.commonPool());
+        return MergeCount.top(counts, Pagination.MAX_LIMIT, candidate -> candidate == userId
+                || Arrays.binarySearch(followees, candidate) >= 0
+                || followGraph.isDeleted(candidate));
+    }
+
+    private record Ranking(MergeCount.Counts top, long expiresAt) {
+    }
+}
@@ -0,0 +1,105 @@
+package com.cooksys.group01.services.impl;
+
+import com.cooksys.group01.entities.Tweet;
+import com.cooksys.group01.entities.User;
+import com.cooksys.group01.index.FollowGraph;
+import com.cooksys.group01.repositories.TimelineEntryRepository;
+import com.cooksys.group01.repositories.TweetRepository;
+import com.cooksys.group01.services.TimelineService;
+import com.cooksys.group01.utils.Cursor;
+import com.cooksys.group01.utils.KWayMerge;
+import com.cooksys.group01.utils.PagedIterator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/* Hybrid feed: tweets from regular authors are pushed into their followers' timelines when posted, while
+authors above feed.celebrity-threshold only write to their own timeline and are pulled in at read time.
+This caps the write amplification of a single post at the threshold. */
+@Service
+@RequiredArgsConstructor
+public class TimelineServiceImpl implements TimelineService {
+
+    private final TimelineEntryRepository timelineEntryRepository;
+    private final TweetRepository tweetRepository;
+    private final MeterRegistry meterRegistry;
+    private final FollowGraph followGraph;
+
+    private static final Comparator<Tweet> NEWEST_FIRST = Comparator.comparing(Tweet::getId).reversed();
+
+    // How much of a newly followed user's history is copied into the follower's timeline
+    @Value("${feed.backfill-limit:800}")
+    private int backfillLimit;
+
+    @Value("${feed.celebrity-threshold:10000}")
+    private long celebrityThreshold;
+
+    @Override
+    @Transactional
+    public void fanOut(Tweet tweet) {
+        Long authorId = tweet.getAuthor().getId();
+        int written;
+        if (isCelebrity(authorId)) {
+            written = timelineEntryRepository.addToOwnTimeline(authorId, tweet.getId());
+            meterRegistry.counter("feed.fanout.skipped").increment();
+        } else {
+            written = timelineEntryRepository.fanOut(authorId, tweet.getId());
+        }
+        // Rows written per post is the write amplification for the configured threshold
+        meterRegistry.summary("feed.fanout.rows", "threshold", String.valueOf(celebrityThreshold)).record(written);
+    }
+
+    @Override
+    @Transactional
+    public void backfill(Long followerId, Long followedId) {
+        // Celebrity tweets are merged in at read time, so copying their history would only duplicate it
+        if (isCelebrity(followedId))
+            return;
+        timelineEntryRepository.backfill(followerId, followedId, backfillLimit);
+    }
+
+    @Override
+    @Transactional
+    public void prune(Long followerId, Long unfollowedId) {
+        timelineEntryRepository.prune(followerId, unfollowedId);
+    }
+
+    @Override
+    public List<Tweet> getTimeline(User owner, Cursor cursor, int limit) {
+        /* The precomputed timeline is one stream and every followed celebrity is another, each already newest
+        first. An author may have crossed the threshold, leaving some tweets in two streams, so the merge
+        dedupes by id. */
+        List<Iterator<Tweet>> streams = new ArrayList<>();
+        streams.add(new PagedIterator<>(cursor, limit, position -> time("push", () ->
+                timelineEntryRepository.findTimelineBefore(owner.getId(), position.getId(), PageRequest.of(0, limit))),
+                Cursor::of));
+        for (long celebrity : followGraph.following(owner.getId())) {
+            if (!isCelebrity(celebrity))
+                continue;
+            streams.add(new PagedIterator<>(cursor, limit, position -> time("pull", () ->
+                    tweetRepository.findByAuthorBefore(celebrity, position.getId(), PageRequest.of(0, limit))),
+                    Cursor::of));
+        }
+        return KWayMerge.merge(streams, NEWEST_FIRST, Tweet::getId, limit);
+    }
+
+    // HELPER FUNCTIONS
+    private boolean isCelebrity(long userId) {
+        return followGraph.followerCount(userId) > celebrityThreshold;
+    }
+
+    private List<Tweet> time(String path, Supplier<List<Tweet>> read) {
+        return Timer.builder("feed.read")
+                .tag("path", path)
+                .tag("threshold", String.valueOf(celebrityThreshold))
+                .register(meterRegistry)
+                .record(read);
+    }
+}
@@ -0,0 +1,232 @@
+package com.cooksys.group01.services.impl;
+
+import com.cooksys.group01.dtos.TrendingHashtagDTO;
+import com.cooksys.group01.exceptions.BadRequestException;
+import com.cooksys.group01.services.TrendingService;
+import com.cooksys.group01.utils.CountMinSketch;
+import com.cooksys.group01.utils.Pagination;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/* Hashtag uses are counted in five minute buckets, each its own count-min sketch. Every supported window
+keeps a running sketch of the buckets it spans: new uses are added to it directly and a bucket's sketch is
+subtracted once it slides out. Each window also tracks a bounded set of heavy-hitter candidates in a min-heap,
+so asking for what is trending only sorts that set and never touches the tweet table.
+
+Posting a tweet never waits on the sketches: uses are stamped with their bucket and queued, and whichever
+caller finds the lock free drains the queue. Reads take the lock and drain first, so they see every use
+recorded before them. */
+@Service
+public class TrendingServiceImpl implements TrendingService {
+
+    private static final long BUCKET_MILLIS = 5 * 60 * 1000L;
+    private static final int RING_SIZE = 288;
+    private static final int DEPTH = 4;
+    private static final int WIDTH = 1024;
+    private static final int CANDIDATES = 2 * Pagination.MAX_LIMIT;
+
+    // Supported windows and the number of buckets each one spans
+    private static final Map<String, Integer> WINDOWS = Map.of("15m", 3, "1h", 12, "6h", 72, "24h", RING_SIZE);
+
+    private final Queue<Use> pending = new ConcurrentLinkedQueue<>();
+    // Guards everything below
+    private final ReentrantLock lock = new ReentrantLock();
+    private final CountMinSketch[] buckets = new CountMinSketch[RING_SIZE];
+    // Which bucket currently occupies each slot of the ring, -1 while a slot is unused
+    private final long[] bucketIds = new long[RING_SIZE];
+    private final Map<String, Window> windows = new HashMap<>();
+    private long currentBucket = -1;
+
+    public TrendingServiceImpl() {
+        for (int i = 0; i < RING_SIZE; i++)
+            buckets[i] = new CountMinSketch(DEPTH, WIDTH);
+        Arrays.fill(bucketIds, -1);
+        WINDOWS.forEach((name, span) -> windows.put(name, new Window(span)));
+    }
+
+    @Override
+    public void recordUse(Collection<String> labels) {
+        long bucket = System.currentTimeMillis() / BUCKET_MILLIS;
+        for (String label : labels)
+            pending.add(new Use(label, bucket));
+        // Someone already draining will pick these up; the check after unlocking covers a drain that just ended
+        while (!pending.isEmpty() && lock.tryLock()) {
+            try {
+                drain();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public List<TrendingHashtagDTO> getTrending(String window, Integer limit) {
+        Window selected = windows.get(window);
+        if (selected == null)
+            throw new BadRequestException("Window Must Be One Of 15m, 1h, 6h, 24h");
+        lock.lock();
+        try {
+            drain();
+            advance(System.currentTimeMillis() / BUCKET_MILLIS);
+            return selected.top(Pagination.limit(limit));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // HELPER FUNCTIONS
+    private void drain() {
+        Use use;
+        while ((use = pending.poll()) != null) {
+            advance(use.bucket);
+            // Queued before the ring moved on: count it in its own bucket and the windows still spanning that
+            if (bucketIds[slot(use.bucket)] != use.bucket)
+                continue;
+            buckets[slot(use.bucket)].add(use.label);
+            for (Window window : windows.values())
+                if (use.bucket > currentBucket - window.span)
+                    window.add(use.label);
+        }
+    }
+
+    private void advance(long bucket) {
+        if (bucket <= currentBucket)
+            return;
+        if (currentBucket < 0 || bucket - currentBucket >= RING_SIZE) {
+            // Everything held is older than the widest window
+            for (CountMinSketch sketch : buckets)
+                sketch.clear();
+            Arrays.fill(bucketIds, -1);
+            for (Window window : windows.values())
+                window.clear();
+        } else {
+            for (long next = currentBucket + 1; next <= bucket; next++) {
+                for (Window window : windows.values()) {
+                    long expired = next - window.span;
+                    if (expired >= 0 && bucketIds[slot(expired)] == expired)
+                        window.sketch.subtract(buckets[slot(expired)]);
+                }
+                buckets[slot(next)].clear();
+                bucketIds[slot(next)] = -1;
+            }
+            for (Window window : windows.values())
+                window.refresh();
+        }
+        currentBucket = bucket;
+        bucketIds[slot(bucket)] = bucket;
+    }
+
+    private int slot(long bucket) {
+        return (int) (bucket % RING_SIZE);
+    }
+
+    private record Use(String label, long bucket) {
+    }
+
+    /* Candidates sit in a binary min-heap by estimate, with each label's position kept in a map, so a use
+    either raises its own label's count or challenges the weakest candidate in O(log CANDIDATES). */
+    private static class Window {
+
+        private final int span;
+        private final CountMinSketch sketch = new CountMinSketch(DEPTH, WIDTH);
+        private final String[] labels = new String[CANDIDATES];
+        private final long[] counts = new long[CANDIDATES];
+        private final Map<String, Integer> positions = new HashMap<>();
+        private int size;
+
+        private Window(int span) {
+            this.span = span;
+        }
+
+        private void add(String label) {
+            sketch.add(label);
+            long estimate = sketch.estimate(label);
+            Integer at = positions.get(label);
+            if (at != null) {
+                // Estimates only grow between refreshes, so a candidate can only move away from the root
+                counts[at] = estimate;
+                siftDown(at);
+            } else if (size < CANDIDATES) {
+                place(size++, label, estimate);
+                siftUp(size - 1);
+            } else if (estimate > counts[0]) {
+                positions.remove(labels[0]);
+                place(0, label, estimate);
+                siftDown(0);
+            }
+        }
+
+        // Called once buckets have slid out of the window, so candidate counts stop including them
+        private void refresh() {
+            int kept = 0;
+            positions.clear();
+            for (int i = 0; i < size; i++) {
+                long estimate = sketch.estimate(labels[i]);
+                if (estimate > 0)
+                    place(kept++, labels[i], estimate);
+            }
+            Arrays.fill(labels, kept, size, null);
+            size = kept;
+            for (int i = size / 2 - 1; i >= 0; i--)
+                siftDown(i);
+        }
+
+        private void clear() {
+            sketch.clear();
+            positions.clear();
+            Arrays.fill(labels, 0, size, null);
+            size = 0;
+        }
+
+        private List<TrendingHashtagDTO> top(int limit) {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++)
+                order[i] = i;
+            Arrays.sort(order, (a, b) -> Long.compare(counts[b], counts[a]));
+            List<TrendingHashtagDTO> top = new ArrayList<>(Math.min(limit, size));
+            for (int i = 0; i < order.length && i < limit; i++)
+                top.add(new TrendingHashtagDTO(labels[order[i]].replace("#", ""), counts[order[i]]));
+            return top;
+        }
+
+        private void siftUp(int at) {
+            while (at > 0) {
+                int parent = (at - 1) / 2;
+                if (counts[parent] <= counts[at])
+                    return;
+                swap(at, parent);
+                at = parent;
+            }
+        }
+
+        private void siftDown(int at) {
+            while (true) {
+                int smallest = at, left = 2 * at + 1, right = left + 1;
+                if (left < size && counts[left] < counts[smallest])
+                    smallest = left;
+                if (right < size && counts[right] < counts[smallest])
+                    smallest = right;
+                if (smallest == at)
+                    return;
+                swap(at, smallest);
+                at = smallest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            String label = labels[a];
+            long count = counts[a];
+            place(a, labels[b], counts[b]);
+            place(b, label, count);
+        }
+
+        private void place(int at, String label, long count) {
+            labels[at] = label;
+            counts[at] = count;
+            positions.put(label, at);
+        }
+    }
+}
@@ -7,19 +7,35 @@ import com.cooksys.group01.entities.User;
 import com.cooksys.group01.exceptions.BadRequestException;
 import com.cooksys.group01.exceptions.NotAuthorizedException;
 import com.cooksys.group01.exceptions.NotFoundException;
+import com.cooksys.group01.index.HashtagLabelCache;
+import com.cooksys.group01.index.HashtagPrefixIndex;
+import com.cooksys.group01.index.HashtagSampler;
 import com.cooksys.group01.mappers.HashtagMapper;
 import com.cooksys.group01.mappers.TweetMapper;
 import com.cooksys.group01.mappers.UserMapper;
 import com.cooksys.group01.repositories.HashtagRepository;
+import com.cooksys.group01.repositories.TweetClosureRepository;
 import com.cooksys.group01.repositories.TweetRepository;
 import com.cooksys.group01.repositories.UserRepository;
+import com.cooksys.group01.services.HashtagUsageService;
+import com.cooksys.group01.services.SessionService;
+import com.cooksys.group01.services.TimelineService;
+import com.cooksys.group01.services.TrendingService;
 import com.cooksys.group01.services.TweetService;
+import com.cooksys.group01.services.TweetStatsService;
+import com.cooksys.group01.utils.ContentTokenizer;
+import com.cooksys.group01.utils.Cursor;
+import com.cooksys.group01.utils.Pagination;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.sql.Timestamp;
 import java.util.*;
 
 @Service
@@ -27,94 +43,128 @@ import java.util.*;
 public class TweetServiceImpl implements TweetService {
 
 	private final TweetRepository tweetRepository;
+    private final TweetClosureRepository tweetClosureRepository;
 	private final UserRepository userRepository;
 	private final HashtagRepository hashtagRepository;
 	private final TweetMapper tweetMapper;
     private final UserMapper userMapper;
     private final HashtagMapper hashtagMapper;
-  
-    List<Character> allowedCharacters = new ArrayList<>(List.of('A', 'B', 'C', 'D', 'E', 'F', 'G', 'H', 'I',
-            'J', 'K', 'L', 'M', 'N', 'O', 'P', 'Q', 'R', 'S', 'T', 'U', 'V', 'W', 'X', 'Y', 'Z', '0', '1',
-            '2', '3', '4', '5', '6', '7', '8', '9', '{', '}'));
+    private final TimelineService timelineService;
+    private final TrendingService trendingService;
+    private final HashtagSampler hashtagSampler;
+    private final HashtagLabelCache hashtagLabelCache;
+    private final HashtagPrefixIndex hashtagPrefixIndex;
+    private final HashtagUsageService hashtagUsageService;
+    private final TweetStatsService tweetStatsService;
+    private final SessionService sessionService;
+
+    // Bounds on how much of a conversation GET /tweets/{id}/context returns
+    @Value("${tweets.context-max-depth:50}")
+    private int contextMaxDepth;
+
+    @Value("${tweets.reply-tree-depth:3}")
+    private int replyTreeDepth;
+
+    @Value("${tweets.reply-tree-branch:3}")
+    private int replyTreeBranch;
 
 	@Override
 	public List<TweetRespDTO> getRepliesById(Long id) {
 		Optional<Tweet> opTweet = tweetRepository.findByIdAndDeletedFalse(id);
 		if (opTweet.isEmpty())
 			throw new NotFoundException("Unable To Find Tweet With ID " + id);
-        List<Tweet> replies = opTweet.get().getReplyThread();
+        List<Tweet> replies = tweetClosureRepository.findDirectReplies(id);
         List<TweetRespDTO> replyDTOs = new ArrayList<>();
-        for(Tweet reply : replies)
-            if(!reply.isDeleted()) {
-                TweetRespDTO replyDTO = tweetMapper.entityToDTO(reply);
-                replyDTO.getInReplyTo().getAuthor().setUsername(reply.getInReplyTo().getAuthor().getCredentials().getUsername());
-                replyDTO.getAuthor().setUsername(reply.getAuthor().getCredentials().getUsername());
-                replyDTOs.add(replyDTO);
-            }
+        for(Tweet reply : replies) {
+            TweetRespDTO replyDTO = tweetMapper.entityToDTO(reply);
+            replyDTO.getInReplyTo().getAuthor().setUsername(reply.getInReplyTo().getAuthor().getCredentials().getUsername());
+            replyDTO.getAuthor().setUsername(reply.getAuthor().getCredentials().getUsername());
+            replyDTOs.add(replyDTO);
+        }
+        tweetStatsService.fillCounts(replyDTOs);
         return replyDTOs;
 	}
 
 	@Override
-	public TweetRespDTO repostById(Long id, CredentialsDTO credentials) {
-		if (credentials.getUsername() == null || credentials.getPassword() == null)
-			throw new BadRequestException("Could not verify credentials");
-		Optional<User> opUser = userRepository.findByCredentialsUsernameAndCredentialsPasswordAndDeletedFalse(
-				credentials.getUsername(), credentials.getPassword());
-		if (opUser.isEmpty())
-			throw new BadRequestException("Could not verify credentials");
+	@Transactional
+	public TweetRespDTO repostById(Long id, CredentialsDTO credentials, String authorization) {
+		SessionService.Principal principal = sessionService.principal(authorization);
+		User user = tokenUser(principal);
+		if (user == null) {
+			if (credentials == null || credentials.getUsername() == null || credentials.getPassword() == null)
+				throw new BadRequestException("Could not verify credentials");
+			Optional<User> opUser = userRepository.findByCredentialsUsernameAndCredentialsPasswordAndDeletedFalse(
+					credentials.getUsername(), credentials.getPassword());
+			if (opUser.isEmpty())
+				throw new BadRequestException("Could not verify credentials");
+			user = opUser.get();
+		}
 		Optional<Tweet> opTweet = tweetRepository.findByIdAndDeletedFalse(id);
 		if (opTweet.isEmpty())
 			throw new NotFoundException("Unable to find tweet with ID " + id);
 		Tweet tweet = opTweet.get();
-		User user = opUser.get();
-		Tweet repost = tweetRepository.save(new Tweet(null, user, null, false, null, null, null, null, null, null, null, tweet));
-		TweetRespDTO repostDTO = tweetMapper.entityToDTO(repost);
-		repostDTO.getAuthor().setUsername(repost.getAuthor().getCredentials().getUsername());
+		Tweet repost = tweetRepository.save(new Tweet(null, user, null, false, null, null, null, null, null, null, null, null, tweet));
+		timelineService.fanOut(repost);
+		tweetStatsService.tweetCreated(repost, 0);
+		TweetRespDTO repostDTO = tweetMapper.entityToDTOWithoutAuthor(repost);
+		repostDTO.setAuthor(authorDTO(principal, user));
 		repostDTO.getRepostOf().getAuthor().setUsername(repost.getRepostOf().getAuthor().getCredentials().getUsername());
+		tweetStatsService.fillCounts(List.of(repostDTO));
 		return repostDTO;
 	}
 
     @Override
-    public TweetRespDTO replyToTweet(Long id, TweetReqDTO tweetReqDTO) {
+    @Transactional
+    public TweetRespDTO replyToTweet(Long id, TweetReqDTO tweetReqDTO, String authorization) {
         Optional<Tweet> opTweet = tweetRepository.findByIdAndDeletedFalse(id);
         if(opTweet.isEmpty())
             throw new NotFoundException("Unable To Find Tweet With ID " + id);
-        if(tweetReqDTO.getCredentials() == null || tweetReqDTO.getContent() == null)
-            throw new BadRequestException("Invalid Credentials");
-        if(tweetReqDTO.getCredentials().getPassword() == null || tweetReqDTO.getCredentials().getUsername() == null)
+        SessionService.Principal principal = sessionService.principal(authorization);
+        User user = tokenUser(principal);
+        if(tweetReqDTO.getContent() == null || (user == null && tweetReqDTO.getCredentials() == null))
             throw new BadRequestException("Invalid Credentials");
-        CredentialsDTO credentials = tweetReqDTO.getCredentials();
-        Optional<User> opUser = userRepository
-                .findByCredentialsUsernameAndCredentialsPasswordAndDeletedFalse(
-                credentials.getUsername(), credentials.getPassword());
-        if(opUser.isEmpty())
-            throw new NotAuthorizedException("Invalid Credentials");
+        if(user == null) {
+            CredentialsDTO credentials = tweetReqDTO.getCredentials();
+            if(credentials.getPassword() == null || credentials.getUsername() == null)
+                throw new BadRequestException("Invalid Credentials");
+            Optional<User> opUser = userRepository
+                    .findByCredentialsUsernameAndCredentialsPasswordAndDeletedFalse(
+                    credentials.getUsername(), credentials.getPassword());
+            if(opUser.isEmpty())
+                throw new NotAuthorizedException("Invalid Credentials");
+            user = opUser.get();
+        }
         // Remember to scan the tweet for mentions and hashtags
         Tweet tweet = opTweet.get();
-        User user = opUser.get();
         Tweet reply = tweetMapper.dtoToEntity(tweetReqDTO);
         reply.setInReplyTo(tweet);
         reply.setAuthor(user);
-        Tweet savedReply = tweetRepository.save(reply);
-        tweet.addReply(savedReply);
-        tweetRepository.save(tweet);
-        TweetRespDTO replyDTO = tweetMapper.entityToDTO(savedReply);
-        replyDTO.setAuthor(userMapper.entityToDTO(user));
-        replyDTO.getAuthor().setUsername(user.getCredentials().getUsername());
+        reply.setConversationRootId(tweet.getConversationRootId() != null ? tweet.getConversationRootId() : tweet.getId());
+        Tweet savedReply = tweetRepository.saveAndFlush(reply);
+        tweetClosureRepository.addReply(savedReply.getId(), tweet.getId());
+        timelineService.fanOut(savedReply);
+        tweetStatsService.tweetCreated(savedReply, 0);
+        TweetRespDTO replyDTO = tweetMapper.entityToDTOWithoutAuthor(savedReply);
+        replyDTO.setAuthor(authorDTO(principal, user));
         replyDTO.getInReplyTo().getAuthor().setUsername(tweet.getAuthor().getCredentials().getUsername());
+        tweetStatsService.fillCounts(List.of(replyDTO));
         return replyDTO;
     }
 
     @Override
-    public List<TweetRespDTO> getAllTweets() {
-        List<Tweet> allTweets = tweetRepository.findByDeletedFalseOrderByPostedDesc();
+    public PageDTO<TweetRespDTO> getAllTweets(Integer limit, String before, String after) {
+        int pageSize = Pagination.limit(limit);
+        List<Tweet> allTweets = Pagination.fetch(before, after,
+                cursor -> tweetRepository.findAllBefore(cursor.getId(), PageRequest.of(0, pageSize)),
+                cursor -> tweetRepository.findAllAfter(cursor.getId(), PageRequest.of(0, pageSize)));
         List<TweetRespDTO> allTweetsDTO = new ArrayList<>();
         for(Tweet tweet : allTweets) {
             TweetRespDTO tweetDTO = tweetMapper.entityToDTO(tweet);
             tweetDTO.getAuthor().setUsername(tweet.getAuthor().getCredentials().getUsername());
             allTweetsDTO.add(tweetDTO);
         }
-        return allTweetsDTO;
+        tweetStatsService.fillCounts(allTweetsDTO);
+        return new PageDTO<>(allTweetsDTO, Pagination.nextCursor(allTweets, pageSize, after != null, Cursor::of));
     }
 
     @Override
@@ -125,6 +175,7 @@ public class TweetServiceImpl implements TweetService {
         Tweet tweet = opTweet.get();
         TweetRespDTO tweetDTO = tweetMapper.entityToDTO(tweet);
         tweetDTO.getAuthor().setUsername(tweet.getAuthor().getCredentials().getUsername());
+        tweetStatsService.fillCounts(List.of(tweetDTO));
         return tweetDTO;
     }
 
@@ -158,30 +209,26 @@ public class TweetServiceImpl implements TweetService {
     }
 
     @Override
-    public List<TweetRespDTO> getRepostsById(Long id) {
+    public PageDTO<TweetRespDTO> getRepostsById(Long id, Integer limit, String before, String after) {
         Optional<Tweet> opTweet = tweetRepository.findByIdAndDeletedFalse(id);
         if(opTweet.isEmpty()) {
             throw new NotFoundException("Unable To Find Tweet With ID " + id + "!");
         }
         Tweet tweet = opTweet.get();
-
-        List<Tweet> reposts = new ArrayList<>();
-
-        for(Tweet possibleRepost : tweet.getRepostThread()) {
-            Optional<Tweet> opRepost = tweetRepository.findByIdAndDeletedFalse(possibleRepost.getId());
-            if(opRepost.isPresent()) {
-                Tweet repost = opRepost.get();
-                reposts.add(repost);
-            }
-        }
+        int pageSize = Pagination.limit(limit);
+        List<Tweet> reposts = Pagination.fetch(before, after,
+                cursor -> tweetRepository.findRepostsBefore(id, cursor.getId(), PageRequest.of(0, pageSize)),
+                cursor -> tweetRepository.findRepostsAfter(id, cursor.getId(), PageRequest.of(0, pageSize)));
 
         List<TweetRespDTO> repostDTOs = new ArrayList<>();
         for(Tweet repost : reposts) {
             TweetRespDTO repostDTO = tweetMapper.entityToDTO(repost);
             repostDTO.getAuthor().setUsername(repost.getAuthor().getCredentials().getUsername());
+            repostDTO.getRepostOf().getAuthor().setUsername(tweet.getAuthor().getCredentials().getUsername());
             repostDTOs.add(repostDTO);
         }
-        return repostDTOs;
+        tweetStatsService.fillCounts(repostDTOs);
+        return new PageDTO<>(repostDTOs, Pagination.nextCursor(reposts, pageSize, after != null, Cursor::of));
     }
 
     @Override
@@ -201,136 +248,104 @@ public class TweetServiceImpl implements TweetService {
         }
 
         // BEFORE CONTEXT
-        List<Tweet> beforeList = new ArrayList<>();
         List<TweetRespDTO> beforeRespDTOs = new ArrayList<>();
-        Tweet actualTweet = tweet;
-        while (actualTweet.getInReplyTo() != null) {
-            actualTweet = actualTweet.getInReplyTo();
-            checkStatus: if (!actualTweet.isDeleted()) {
-                Optional<User> opUser = userRepository.findByCredentialsUsername(actualTweet.getAuthor().getCredentials().getUsername());
-                if(opUser.isEmpty()) {
-                    break checkStatus;
-                }
-                User user = opUser.get();
-                UserRespDTO userDTO = userMapper.entityToDTO(user);
-
-                TweetRespDTO tweetRespDTO = new TweetRespDTO();
-                tweetRespDTO.setId(actualTweet.getId());
-                tweetRespDTO.setAuthor(userDTO);
-                tweetRespDTO.getAuthor().setUsername(actualTweet.getAuthor().getCredentials().getUsername());
-                tweetRespDTO.setPosted(actualTweet.getPosted());
-                tweetRespDTO.setContent(actualTweet.getContent());
-                beforeRespDTOs.add(tweetRespDTO);
-            }
-        }
+        for(TweetRepository.ThreadRow row : tweetRepository.findAncestors(id, contextMaxDepth))
+            beforeRespDTOs.add(threadRowToDTO(row));
         contextDTO.setBefore(beforeRespDTOs);
+        List<TweetRespDTO> counted = new ArrayList<>(beforeRespDTOs);
+        counted.add(contextDTO.getTarget());
+        tweetStatsService.fillCounts(counted);
 
         // AFTER CONTEXT
-        List<Tweet> afterList = new ArrayList<>();
-        performBFS(tweet.getReplyThread(), afterList);
-        List<TweetRespDTO> afterRespDTOs = new ArrayList<>();
-        for(Tweet twt : afterList) {
-            TweetRespDTO tweetRespDTO = new TweetRespDTO();
-            tweetRespDTO.setId(twt.getId());
-            Optional<User> opUser = userRepository.findByCredentialsUsernameAndDeletedFalse(twt.getAuthor().getCredentials().getUsername());
-            if(opUser.isEmpty()) {
-                break;
-            }
-            User user = opUser.get();
-            UserRespDTO userDTO = userMapper.entityToDTO(user);
-            System.out.println("user: " + user.getCredentials().getUsername());
-            tweetRespDTO.setAuthor(userDTO);
-            tweetRespDTO.getAuthor().setUsername(twt.getAuthor().getCredentials().getUsername());
-            tweetRespDTO.setContent(twt.getContent());
-            afterRespDTOs.add(tweetRespDTO);
-        }
-
-        contextDTO.setAfter(afterRespDTOs);
+        PageDTO<ReplyNodeDTO> after = buildReplyTree(id, Pagination.DEFAULT_LIMIT, Cursor.FIRST);
+        contextDTO.setAfter(after.getItems());
+        contextDTO.setAfterCursor(after.getNextCursor());
         return contextDTO;
     }
 
     @Override
-    public TweetRespDTO createTweet(TweetReqDTO tweet) {
-        if(tweet.getContent() == null || tweet.getCredentials() == null)
+    public PageDTO<ReplyNodeDTO> getReplyTree(Long id, Integer limit, String cursor) {
+        if(tweetRepository.findByIdAndDeletedFalse(id).isEmpty())
+            throw new NotFoundException("Tweet With ID " + id + " Not Found!");
+        return buildReplyTree(id, Pagination.limit(limit), Cursor.decode(cursor));
+    }
+
+    @Override
+    public ThreadSizeDTO getThreadSize(Long id) {
+        Optional<Tweet> opTweet = tweetRepository.findByIdAndDeletedFalse(id);
+        if(opTweet.isEmpty())
+            throw new NotFoundException("Tweet With ID " + id + " Not Found!");
+        Tweet tweet = opTweet.get();
+        Long rootId = tweet.getConversationRootId() != null ? tweet.getConversationRootId() : tweet.getId();
+        return new ThreadSizeDTO(rootId, tweetClosureRepository.countReplies(id));
+    }
+
+    @Override
+    @Transactional
+    public TweetRespDTO createTweet(TweetReqDTO tweet, String authorization) {
+        SessionService.Principal principal = sessionService.principal(authorization);
+        User user = tokenUser(principal);
+        if(tweet.getContent() == null || (user == null && tweet.getCredentials() == null))
             throw new BadRequestException("Tweet Must Contain Content, Username, and Password");
         if(tweet.getContent().isBlank())
             throw new BadRequestException("Tweet Must Contain Content");
-        Optional<User> opUser = userRepository.
-                findByCredentialsUsernameAndCredentialsPasswordAndDeletedFalse(
-                        tweet.getCredentials().getUsername(), tweet.getCredentials().getPassword());
-        if(opUser.isEmpty())
-            throw new BadRequestException("Username/Password Combination Invalid!");
-        User user = opUser.get();
+        if(user == null) {
+            Optional<User> opUser = userRepository.
+                    findByCredentialsUsernameAndCredentialsPasswordAndDeletedFalse(
+                            tweet.getCredentials().getUsername(), tweet.getCredentials().getPassword());
+            if(opUser.isEmpty())
+                throw new BadRequestException("Username/Password Combination Invalid!");
+            user = opUser.get();
+        }
         Tweet tweetEntity = tweetMapper.dtoToEntity(tweet);
         tweetEntity.setAuthor(user);
-        String[] arr = tweet.getContent().split(" ");
+        String content = tweet.getContent();
         Set<String> usernamesMentioned = new HashSet<>();
         Set<String> hashtags = new HashSet<>();
-        for(String word : arr) {
-            String toAdd = "";
-            int i = 0;
-            if(word.startsWith("@")) {
-                i++;
-                while(i < word.length() && allowedCharacters.contains(word.toUpperCase().charAt(i))) {
-                    toAdd += word.charAt(i);
-                    i++;
-                }
-                usernamesMentioned.add(toAdd);
-            } else if(word.startsWith("#")) {
-                toAdd += "#";
-                i++;
-                while(i < word.length() && allowedCharacters.contains(word.toUpperCase().charAt(i))) {
-                    toAdd += word.charAt(i);
-                    i++;
-                }
-                hashtags.add(toAdd);
-            }
-        }
-        List<Hashtag> savedTags = new ArrayList<>();
-        List<String> existingLabels = new ArrayList<>(hashtagRepository.getAllLabels());
-        for(String hashtag : hashtags) {
-            if(!existingLabels.contains(hashtag))
-                savedTags.add(hashtagRepository.save(new Hashtag(null, hashtag, null, null, null)));
-            else {
-                Optional<Hashtag> tagToUpdate = hashtagRepository.findByLabel(hashtag);
-                if(tagToUpdate.isPresent()) {
-                    Date date = new Date();
-                    tagToUpdate.get().setLastUsed(new Timestamp(date.getTime()));
-                    hashtagRepository.save(tagToUpdate.get());
-                }
-            }
-        }
-        for(String possibleUser : usernamesMentioned) {
-            Optional<User> foundUser = userRepository.findByCredentialsUsernameAndDeletedFalse(possibleUser);
-            // Might need to save each user after this
-            foundUser.ifPresent(value -> value.addMentionedTweet(tweetEntity));
-        }
+        // Usernames are stored without the '@', hashtag labels keep their '#'
+        ContentTokenizer.tokenize(content, (type, start, end) -> {
+            if(type == ContentTokenizer.Type.MENTION)
+                usernamesMentioned.add(content.substring(start + 1, end));
+            else
+                hashtags.add(content.substring(start, end));
+        });
+        List<Hashtag> savedTags = resolveHashtags(hashtags);
         tweetEntity.setHashtags(savedTags);
-        TweetRespDTO savedTweet = tweetMapper.entityToDTO(tweetRepository.save(tweetEntity));
-        savedTweet.getAuthor().setUsername(user.getCredentials().getUsername());
+        Tweet persistedTweet = tweetRepository.saveAndFlush(tweetEntity);
+        int mentions = usernamesMentioned.isEmpty() ? 0 : userRepository.addMentions(persistedTweet.getId(), usernamesMentioned);
+        timelineService.fanOut(persistedTweet);
+        tweetStatsService.tweetCreated(persistedTweet, mentions);
+        TweetRespDTO savedTweet = tweetMapper.entityToDTOWithoutAuthor(persistedTweet);
+        savedTweet.setAuthor(authorDTO(principal, user));
+        savedTweet.setMentionCount(mentions);
         return savedTweet;
     }
 
     @Override
-    public ResponseEntity<HttpStatus> likeTweet(Long id, CredentialsDTO credentials) {
-        if(credentials.getPassword() == null || credentials.getUsername() == null)
-            throw new NotAuthorizedException("Unable To Verify Credentials");
-        Optional<User> opUser = userRepository.
-                findByCredentialsUsernameAndCredentialsPasswordAndDeletedFalse(credentials.getUsername(), credentials.getPassword());
-        if(opUser.isEmpty())
-            throw new NotAuthorizedException("Unable To Verify Credentials");
-        Optional<Tweet> opTweet = tweetRepository.findByIdAndDeletedFalse(id);
-        if(opTweet.isEmpty())
+    public ResponseEntity<HttpStatus> likeTweet(Long id, CredentialsDTO credentials, String authorization) {
+        SessionService.Principal principal = sessionService.principal(authorization);
+        Long userId;
+        if(principal != null) {
+            userId = principal.userId();
+        } else {
+            if(credentials == null || credentials.getPassword() == null || credentials.getUsername() == null)
+                throw new NotAuthorizedException("Unable To Verify Credentials");
+            Optional<User> opUser = userRepository.
+                    findByCredentialsUsernameAndCredentialsPasswordAndDeletedFalse(credentials.getUsername(), credentials.getPassword());
+            if(opUser.isEmpty())
+                throw new NotAuthorizedException("Unable To Verify Credentials");
+            userId = opUser.get().getId();
+        }
+        if(!tweetRepository.existsByIdAndDeletedFalse(id))
             throw new NotFoundException("Unable To Find Tweet With ID " + id);
-        Tweet tweet = opTweet.get();
-        User user = opUser.get();
-        if(!user.getLikedTweets().contains(tweet))
-            user.addLikedTweet(tweet);
-        userRepository.saveAndFlush(user);
+        // The unique index on user_likes makes a repeated like a no-op, so only new likes are counted
+        if(userRepository.addLike(userId, id) > 0)
+            tweetStatsService.recordLike(id);
         return new ResponseEntity<>(HttpStatus.OK);
     }
 
     @Override
+    @Transactional
     public TweetRespDTO deleteTweetById(Long id) {
         Optional<Tweet> opTweet = tweetRepository.findByIdAndDeletedFalse(id);
         if(opTweet.isEmpty())
@@ -339,26 +354,29 @@ public class TweetServiceImpl implements TweetService {
         TweetRespDTO tweetDTO = tweetMapper.entityToDTO(tweet);
         tweet.setDeleted(true);
         tweetRepository.save(tweet);
+        tweetStatsService.tweetDeleted(tweet);
         tweetDTO.getAuthor().setUsername(tweet.getAuthor().getCredentials().getUsername());
+        tweetStatsService.fillCounts(List.of(tweetDTO));
         return tweetDTO;
     }
 
 	@Override
-	public List<UserRespDTO> getUsersByLikedTweet(Long id) {
+	public PageDTO<UserRespDTO> getUsersByLikedTweet(Long id, Integer limit, String before, String after) {
 		 Optional<Tweet> opTweet = tweetRepository.findByIdAndDeletedFalse(id);
 	        if(opTweet.isEmpty())
 	            throw new NotFoundException("Unable To Find Tweet With ID " + id);
-	        Tweet tweet = opTweet.get();
-	        List<User> users = tweet.getLikes();
+	        int pageSize = Pagination.limit(limit);
+	        List<User> users = Pagination.fetch(before, after,
+	                cursor -> userRepository.findLikersBefore(id, cursor.getId(), PageRequest.of(0, pageSize)),
+	                cursor -> userRepository.findLikersAfter(id, cursor.getId(), PageRequest.of(0, pageSize)));
 	        List<UserRespDTO> replyDTOs = new ArrayList<>();
-	        for(User likes : users)
-	            if(!likes.isDeleted()) {
-	            	String userName = likes.getCredentials().getUsername();
-	                UserRespDTO tempLikesDTO = userMapper.entityToDTO(likes);
-	                tempLikesDTO.setUsername(userName);
-	                replyDTOs.add(tempLikesDTO);
-	            }
-		    return replyDTOs;
+	        for(User likes : users) {
+	            String userName = likes.getCredentials().getUsername();
+	            UserRespDTO tempLikesDTO = userMapper.entityToDTO(likes);
+	            tempLikesDTO.setUsername(userName);
+	            replyDTOs.add(tempLikesDTO);
+	        }
+		    return new PageDTO<>(replyDTOs, Pagination.nextCursor(users, pageSize, after != null, Cursor::of));
 	}
 
 	@Override
@@ -375,18 +393,138 @@ public class TweetServiceImpl implements TweetService {
 	}
 
     // HELPER FUNCTIONS
-    private void performBFS(List<Tweet> replyThread, List<Tweet> tweetsAfter) {
-        if (replyThread == null || replyThread.isEmpty()) {
+    // Runs once the surrounding transaction commits, or straight away outside of one
+    private static void afterCommit(Runnable action) {
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
             return;
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /* The user behind a Bearer token as a reference, which is only ever used for its id so writes do not
+    load the user, or null when the request has no token and the body credentials should be checked instead */
+    private User tokenUser(SessionService.Principal principal) {
+        return principal == null ? null : userRepository.getReferenceById(principal.userId());
+    }
+
+    // A token's author comes from its session; only a user found by their credentials is mapped
+    private UserRespDTO authorDTO(SessionService.Principal principal, User user) {
+        if(principal != null)
+            return principal.author();
+        UserRespDTO author = userMapper.entityToDTO(user);
+        author.setUsername(user.getCredentials().getUsername());
+        return author;
+    }
 
-        Queue<Tweet> queue = new LinkedList<>(replyThread);
-        while (!queue.isEmpty()) {
-            Tweet tweet = queue.poll();
-            if (!tweet.isDeleted()) {
-                tweetsAfter.add(tweet);
+    /* Known labels come from the in-memory cache, unknown ones are created with a single batched upsert,
+    and every tag ends up linked to the tweet through a reference, without loading the Hashtag rows. The uses
+    only reach trending, last-used and autocomplete once the tweet commits, so a rolled back post is not counted. */
+    private List<Hashtag> resolveHashtags(Set<String> labels) {
+        Map<String, Long> tagIds = new HashMap<>();
+        List<String> unknownLabels = new ArrayList<>();
+        for(String label : labels) {
+            Long id = hashtagLabelCache.get(label);
+            if(id == null)
+                unknownLabels.add(label);
+            else
+                tagIds.put(label, id);
+        }
+        if(!unknownLabels.isEmpty()) {
+            Set<String> created = hashtagRepository.insertMissingLabels(unknownLabels);
+            Map<String, Long> resolved = hashtagRepository.findIdsByLabels(unknownLabels);
+            // Rows created here do not exist for anyone else until the tweet commits
+            afterCommit(() -> {
+                hashtagLabelCache.putAll(resolved);
+                for(String label : created)
+                    if(resolved.containsKey(label))
+                        hashtagSampler.add(resolved.get(label));
+            });
+            tagIds.putAll(resolved);
+        }
+        afterCommit(() -> {
+            trendingService.recordUse(labels);
+            // lastUsed and the use count are written behind in batches, not on the hot path of posting
+            hashtagUsageService.recordUse(tagIds.values());
+            long now = System.currentTimeMillis();
+            for(String label : tagIds.keySet())
+                hashtagPrefixIndex.recordUse(label, now);
+        });
+        List<Hashtag> tags = new ArrayList<>();
+        for(Long id : tagIds.values())
+            tags.add(hashtagRepository.getReferenceById(id));
+        return tags;
+    }
+
+    /* One page of a tweet's visible replies, newest first, expanded breadth first to replyTreeDepth levels
+    with at most replyTreeBranch replies under each node. The whole tree holds at most limit tweets; any node
+    whose replies were cut short carries a cursor for fetching the rest. */
+    private PageDTO<ReplyNodeDTO> buildReplyTree(Long id, int limit, Cursor cursor) {
+        List<Tweet> page = tweetClosureRepository.findVisibleRepliesBefore(id, cursor.getId(), PageRequest.of(0, limit));
+        int budget = limit - page.size();
+        List<ReplyNodeDTO> roots = new ArrayList<>();
+        for(Tweet reply : page)
+            roots.add(replyToNode(reply));
+        List<TweetRespDTO> counted = new ArrayList<>();
+        List<ReplyNodeDTO> level = roots;
+        for(int depth = 1; !level.isEmpty(); depth++) {
+            List<Long> ids = new ArrayList<>();
+            for(ReplyNodeDTO node : level) {
+                ids.add(node.getTweet().getId());
+                counted.add(node.getTweet());
+            }
+            Map<Long, Long> counts = new HashMap<>();
+            for(Object[] row : tweetClosureRepository.countVisibleReplies(ids))
+                counts.put((Long) row[0], (Long) row[1]);
+            List<ReplyNodeDTO> nextLevel = new ArrayList<>();
+            for(ReplyNodeDTO node : level) {
+                node.setReplyCount(counts.getOrDefault(node.getTweet().getId(), 0L));
+                if(node.getReplyCount() == 0)
+                    continue;
+                node.setCursor(Cursor.FIRST.encode());
+                if(depth == replyTreeDepth || budget == 0)
+                    continue;
+                List<Tweet> children = tweetClosureRepository.findVisibleRepliesBefore(node.getTweet().getId(),
+                        Long.MAX_VALUE, PageRequest.of(0, Math.min(replyTreeBranch, budget)));
+                budget -= children.size();
+                for(Tweet child : children) {
+                    ReplyNodeDTO childNode = replyToNode(child);
+                    node.getReplies().add(childNode);
+                    nextLevel.add(childNode);
+                }
+                if(children.size() == node.getReplyCount())
+                    node.setCursor(null);
+                else if(!children.isEmpty())
+                    node.setCursor(Cursor.of(children.get(children.size() - 1)).encode());
             }
-            queue.addAll(tweet.getReplyThread());
+            level = nextLevel;
         }
+        tweetStatsService.fillCounts(counted);
+        return new PageDTO<>(roots, Pagination.nextCursor(page, limit, Cursor::of));
+    }
+
+    // The parent is the enclosing node, so inReplyTo is left off
+    private ReplyNodeDTO replyToNode(Tweet reply) {
+        TweetRespDTO replyDTO = tweetMapper.entityToDTO(reply);
+        replyDTO.getAuthor().setUsername(reply.getAuthor().getCredentials().getUsername());
+        replyDTO.setInReplyTo(null);
+        ReplyNodeDTO node = new ReplyNodeDTO();
+        node.setTweet(replyDTO);
+        return node;
+    }
+
+    private TweetRespDTO threadRowToDTO(TweetRepository.ThreadRow row) {
+        ProfileDTO profile = new ProfileDTO(row.getFirstName(), row.getLastName(), row.getEmail(), row.getPhone());
+        TweetRespDTO tweetRespDTO = new TweetRespDTO();
+        tweetRespDTO.setId(row.getId());
+        tweetRespDTO.setAuthor(new UserRespDTO(row.getUsername(), profile, row.getJoined()));
+        tweetRespDTO.setPosted(row.getPosted());
+        tweetRespDTO.setContent(row.getContent());
+        return tweetRespDTO;
     }
 }
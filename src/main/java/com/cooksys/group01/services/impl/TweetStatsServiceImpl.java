@@ -0,0 +1,167 @@
+package com.cooksys.group01.services.impl;
+
+import com.cooksys.group01.dtos.TweetRespDTO;
+import com.cooksys.group01.entities.Tweet;
+import com.cooksys.group01.entities.TweetStats;
+import com.cooksys.group01.repositories.TweetStatsRepository;
+import com.cooksys.group01.services.TweetStatsService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/* Like counts on a viral tweet would otherwise serialize every like on one row lock. New likes are counted
+in a LongAdder per tweet, which spreads concurrent increments over separate cells, and the totals are
+written in one batched UPDATE on a fixed delay. The like rows themselves are inserted straight away, so a
+count lost to a crash is restored by repair(). */
+@Service
+@RequiredArgsConstructor
+public class TweetStatsServiceImpl implements TweetStatsService {
+
+    private final TweetStatsRepository tweetStatsRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Long, LongAdder> pendingLikes = new ConcurrentHashMap<>();
+    // Keeps a flush from writing deltas while a repair recounts the same rows
+    private final Object flushLock = new Object();
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("tweets.likes.pending", pendingLikes, Map::size).register(meterRegistry);
+    }
+
+    @Override
+    @Transactional
+    public void tweetCreated(Tweet tweet, long mentions) {
+        tweetStatsRepository.create(tweet.getId(), mentions);
+        if (tweet.getInReplyTo() != null)
+            tweetStatsRepository.addReplies(tweet.getInReplyTo().getId(), 1);
+        if (tweet.getRepostOf() != null)
+            tweetStatsRepository.addReposts(tweet.getRepostOf().getId(), 1);
+    }
+
+    // The deleted tweet keeps its own counts; it just stops counting towards the tweet it replied to or reposted
+    @Override
+    @Transactional
+    public void tweetDeleted(Tweet tweet) {
+        if (tweet.getInReplyTo() != null)
+            tweetStatsRepository.addReplies(tweet.getInReplyTo().getId(), -1);
+        if (tweet.getRepostOf() != null)
+            tweetStatsRepository.addReposts(tweet.getRepostOf().getId(), -1);
+    }
+
+    @Override
+    public void recordLike(Long tweetId) {
+        addPending(tweetId, 1);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${tweets.like-flush-ms:1000}")
+    public void flushLikes() {
+        synchronized (flushLock) {
+            Map<Long, Long> batch = drainPending();
+            if (batch.isEmpty())
+                return;
+            try {
+                tweetStatsRepository.addLikes(batch);
+                meterRegistry.counter("tweets.likes.flushed").increment(batch.size());
+            } catch (DataAccessException e) {
+                batch.forEach(this::addPending);
+                throw e;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushLikes();
+    }
+
+    // Sets the counts on each tweet, and on the tweets they reply to or repost, with one read of tweet_stats
+    @Override
+    public void fillCounts(Collection<TweetRespDTO> tweets) {
+        List<TweetRespDTO> all = new ArrayList<>();
+        for (TweetRespDTO tweet : tweets) {
+            all.add(tweet);
+            if (tweet.getInReplyTo() != null)
+                all.add(tweet.getInReplyTo());
+            if (tweet.getRepostOf() != null)
+                all.add(tweet.getRepostOf());
+        }
+        Set<Long> ids = new HashSet<>();
+        for (TweetRespDTO tweet : all)
+            ids.add(tweet.getId());
+        Map<Long, TweetStats> stats = new HashMap<>();
+        for (TweetStats row : tweetStatsRepository.findAllById(ids))
+            stats.put(row.getTweetId(), row);
+        for (TweetRespDTO tweet : all) {
+            TweetStats row = stats.get(tweet.getId());
+            if (row == null)
+                continue;
+            // Likes not yet flushed are included so a user sees their own like straight away
+            LongAdder pending = pendingLikes.get(tweet.getId());
+            tweet.setLikeCount(row.getLikeCount() + (pending == null ? 0 : pending.sum()));
+            tweet.setReplyCount(row.getReplyCount());
+            tweet.setRepostCount(row.getRepostCount());
+            tweet.setMentionCount(row.getMentionCount());
+        }
+    }
+
+    /* Rebuilds every counter from the join tables. Off unless tweets.stats-repair-cron is set. Every buffered
+    like already has its user_likes row, which the recount counts, so the buffer is emptied first and its
+    deltas dropped rather than flushed on top; flushing waits meanwhile. A like that commits while the recount
+    runs can still be missed or counted twice until the next repair. */
+    @Override
+    @Transactional
+    @Scheduled(cron = "${tweets.stats-repair-cron:-}")
+    public void repair() {
+        synchronized (flushLock) {
+            Map<Long, Long> counted = drainPending();
+            try {
+                tweetStatsRepository.createMissing();
+                tweetStatsRepository.recount();
+            } catch (RuntimeException e) {
+                counted.forEach(this::addPending);
+                throw e;
+            }
+        }
+    }
+
+    // HELPER FUNCTIONS
+    // Takes every buffered delta, retiring adders that had nothing since the last drain
+    private Map<Long, Long> drainPending() {
+        Map<Long, Long> batch = new HashMap<>();
+        for (Map.Entry<Long, LongAdder> entry : pendingLikes.entrySet()) {
+            long likes = entry.getValue().sumThenReset();
+            if (likes != 0)
+                batch.put(entry.getKey(), likes);
+            else
+                // Nothing liked it for a whole interval, so stop tracking it until it is liked again
+                pendingLikes.computeIfPresent(entry.getKey(),
+                        (id, adder) -> adder == entry.getValue() && adder.sum() == 0 ? null : adder);
+        }
+        return batch;
+    }
+
+    /* Adders are incremented outside the map's lock, so flushLikes can retire an adder just as a like is
+    added to it. Whoever added to an adder that is no longer mapped takes back what it holds and adds that
+    to the current one; sumThenReset hands each like to exactly one of the threads doing so. */
+    private void addPending(Long tweetId, long likes) {
+        while (likes != 0) {
+            LongAdder adder = pendingLikes.computeIfAbsent(tweetId, id -> new LongAdder());
+            adder.add(likes);
+            if (pendingLikes.get(tweetId) == adder)
+                return;
+            likes = adder.sumThenReset();
+        }
+    }
+}
@@ -7,28 +7,41 @@ import com.cooksys.group01.entities.embeddable.Credentials;
 import com.cooksys.group01.exceptions.BadRequestException;
 import com.cooksys.group01.exceptions.NotAuthorizedException;
 import com.cooksys.group01.exceptions.NotFoundException;
+import com.cooksys.group01.index.FollowGraph;
 import com.cooksys.group01.mappers.TweetMapper;
 import com.cooksys.group01.mappers.UserMapper;
+import com.cooksys.group01.repositories.TweetRepository;
 import com.cooksys.group01.repositories.UserRepository;
+import com.cooksys.group01.services.SessionService;
+import com.cooksys.group01.services.SuggestionService;
+import com.cooksys.group01.services.TimelineService;
+import com.cooksys.group01.services.TweetStatsService;
 import com.cooksys.group01.services.UserService;
+import com.cooksys.group01.utils.ContentTokenizer;
+import com.cooksys.group01.utils.Cursor;
+import com.cooksys.group01.utils.Pagination;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 
+    // Most usernames a relationships or bulk follow request may name
+    private static final int MAX_BATCH_USERNAMES = 1000;
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final TweetMapper tweetMapper;
-
-    private final List<Character> allowedCharacters = new ArrayList<>(List.of('A', 'B', 'C', 'D', 'E',
-            'F', 'G', 'H', 'I', 'J', 'K', 'L', 'M', 'N', 'O', 'P', 'Q', 'R', 'S', 'T', 'U', 'V', 'W', 'X', 'Y',
-            'Z', '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', '{', '}'));
+    private final TweetRepository tweetRepository;
+    private final TimelineService timelineService;
+    private final TweetStatsService tweetStatsService;
+    private final FollowGraph followGraph;
+    private final SuggestionService suggestionService;
+    private final SessionService sessionService;
 
     @Override
     public List<UserRespDTO> getActiveUsers() {
@@ -53,127 +66,133 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public List<TweetRespDTO> getUserTweets(String username) {
+    public PageDTO<TweetRespDTO> getUserTweets(String username, Integer limit, String before, String after) {
         Optional<User> opUser = userRepository.findByCredentialsUsernameAndDeletedFalse(username);
         if (opUser.isEmpty())
             throw new NotFoundException("Unable To Find User With Username " + username);
-        List<Tweet> tweets = new ArrayList<>(opUser.get().getTweets());
-        List<TweetRespDTO> tweetDTOs = new ArrayList<>();
-        for(Tweet tweet : tweets)
-            if(!tweet.isDeleted()) {
-                TweetRespDTO tweetDTO = tweetMapper.entityToDTO(tweet);
-                tweetDTO.getAuthor().setUsername(tweet.getAuthor().getCredentials().getUsername());
-                tweetDTOs.add(tweetDTO);
-            }
-        return tweetDTOs;
+        Long userId = opUser.get().getId();
+        int pageSize = Pagination.limit(limit);
+        List<Tweet> tweets = Pagination.fetch(before, after,
+                cursor -> tweetRepository.findByAuthorBefore(userId, cursor.getId(), PageRequest.of(0, pageSize)),
+                cursor -> tweetRepository.findByAuthorAfter(userId, cursor.getId(), PageRequest.of(0, pageSize)));
+        return new PageDTO<>(tweetsToDTOs(tweets), Pagination.nextCursor(tweets, pageSize, after != null, Cursor::of));
     }
 
     @Override
-    public List<UserRespDTO> getFollowers(String username) {
+    public PageDTO<UserRespDTO> getFollowers(String username, Integer limit, String before, String after) {
         Optional<User> opUser = userRepository.findByCredentialsUsernameAndDeletedFalse(username);
         if (opUser.isEmpty())
             throw new NotFoundException("Unable To Find Username '" + username + "'");
-        User user = opUser.get();
-        List<UserRespDTO> followers = new ArrayList<>();
-        for (User follower : user.getFollowers())
-            if (!follower.isDeleted()) {
-                UserRespDTO tempUser = userMapper.entityToDTO(follower);
-                tempUser.setUsername(follower.getCredentials().getUsername());
-                followers.add(tempUser);
-            }
-        return followers;
+        Long userId = opUser.get().getId();
+        int pageSize = Pagination.limit(limit);
+        List<User> followers = usersByIds(Pagination.fetch(before, after,
+                cursor -> followGraph.followersBefore(userId, cursor.getId(), pageSize),
+                cursor -> followGraph.followersAfter(userId, cursor.getId(), pageSize)));
+        return new PageDTO<>(usersToDTOs(followers), Pagination.nextCursor(followers, pageSize, after != null, Cursor::of));
     }
 
     @Override
-    public List<UserRespDTO> getFollowing(String username) {
+    public PageDTO<UserRespDTO> getFollowing(String username, Integer limit, String before, String after) {
         Optional<User> opUser = userRepository.findByCredentialsUsernameAndDeletedFalse(username);
         if (opUser.isEmpty())
             throw new NotFoundException("Unable To Find Username '" + username + "'");
-        User user = opUser.get();
-        List<UserRespDTO> followings = new ArrayList<>();
-        for (User following : user.getFollowing())
-            if (!following.isDeleted()) {
-                UserRespDTO tempUser = userMapper.entityToDTO(following);
-                tempUser.setUsername(following.getCredentials().getUsername());
-                followings.add(tempUser);
-            }
-        return followings;
+        Long userId = opUser.get().getId();
+        int pageSize = Pagination.limit(limit);
+        List<User> followings = usersByIds(Pagination.fetch(before, after,
+                cursor -> followGraph.followingBefore(userId, cursor.getId(), pageSize),
+                cursor -> followGraph.followingAfter(userId, cursor.getId(), pageSize)));
+        return new PageDTO<>(usersToDTOs(followings), Pagination.nextCursor(followings, pageSize, after != null, Cursor::of));
     }
 
     @Override
-    public List<TweetRespDTO> getMentions(String username) {
-        // TODO - Ensure the tweets are in reverse chronological order!
+    public List<SuggestionDTO> getSuggestions(String username, Integer limit) {
         Optional<User> opUser = userRepository.findByCredentialsUsernameAndDeletedFalse(username);
         if (opUser.isEmpty())
             throw new NotFoundException("Unable To Find Username '" + username + "'");
-        User user = opUser.get();
-        List<TweetRespDTO> mentionedTweets = new ArrayList<>();
-        for (Tweet t : user.getMentionedTweets())
-            if (!t.isDeleted()) {
-                TweetRespDTO tempTweet = tweetMapper.entityToDTO(t);
-                tempTweet.getAuthor().setUsername(t.getAuthor().getCredentials().getUsername());
-                mentionedTweets.add(tempTweet);
-            }
-        return mentionedTweets;
+        return suggestionService.getSuggestions(opUser.get().getId(), Pagination.limit(limit));
     }
 
     @Override
-    public List<TweetRespDTO> getFeed(String username) {
-        //TODO: Will need to check reply to and repost of tweets etc, Unfinished, still getting null usernames
+    public List<RelationshipDTO> getRelationships(String username, List<String> with) {
         Optional<User> opUser = userRepository.findByCredentialsUsernameAndDeletedFalse(username);
         if (opUser.isEmpty())
             throw new NotFoundException("Unable To Find Username '" + username + "'");
-        User user = opUser.get();
-        List<TweetRespDTO> tweets = new ArrayList<>();
-        for (Tweet userTweet : user.getTweets())
-            if (!userTweet.isDeleted()) {
-                TweetRespDTO tempTweet = tweetMapper.entityToDTO(userTweet);
-                tempTweet.getAuthor().setUsername(userTweet.getAuthor().getCredentials().getUsername());
-                tweets.add(tempTweet);
-            }
-        List<User> followings = user.getFollowing();
-        for (User following : followings) {
-            for (Tweet tweet : following.getTweets()) {
-                if (!tweet.isDeleted()) {
-                    TweetRespDTO tempTweet = tweetMapper.entityToDTO(tweet);
-                    tempTweet.getAuthor().setUsername(tweet.getAuthor().getCredentials().getUsername());
-                    tweets.add(tempTweet);
-                }
-                for (Tweet reply : tweet.getReplyThread()) {
-                    if (reply != null && !reply.isDeleted()) {
-                        TweetRespDTO tempReply = tweetMapper.entityToDTO(reply);
-                        tempReply.getAuthor().setUsername(reply.getAuthor().getCredentials().getUsername());
-                        tweets.add(tempReply);
-                    }
-                }
-                for (Tweet repost : tweet.getRepostThread()) {
-                    if (repost != null && !repost.isDeleted()) {
-                        TweetRespDTO tempRepost = tweetMapper.entityToDTO(repost);
-                        tempRepost.getAuthor().setUsername(repost.getAuthor().getCredentials().getUsername());
-                        tweets.add(tempRepost);
-                    }
-                }
-            }
+        Set<String> usernames = new LinkedHashSet<>(with == null ? List.of() : with);
+        if (usernames.size() > MAX_BATCH_USERNAMES)
+            throw new BadRequestException("At Most " + MAX_BATCH_USERNAMES + " Usernames May Be Provided");
+        if (usernames.isEmpty())
+            return new ArrayList<>();
+
+        Map<String, Long> ids = idsByUsernames(usernames);
+        /* One pass of each of the user's sorted neighbour arrays against the sorted targets answers both
+        directions for every target */
+        long[] targets = ids.values().stream().mapToLong(Long::longValue).sorted().toArray();
+        Long userId = opUser.get().getId();
+        boolean[] following = followGraph.followsAll(userId, targets);
+        boolean[] followedBy = followGraph.followedByAll(userId, targets);
+
+        // In the order asked for, leaving out usernames that do not exist or were deleted
+        List<RelationshipDTO> relationships = new ArrayList<>();
+        for (String target : usernames) {
+            Long id = ids.get(target);
+            if (id == null)
+                continue;
+            int at = Arrays.binarySearch(targets, id);
+            relationships.add(new RelationshipDTO(target, following[at], followedBy[at], following[at] && followedBy[at]));
         }
-        return tweets;
+        return relationships;
     }
 
     @Override
-    public UserRespDTO updateUser(String username, UserReqDTO user) {
-        /* Checking for null profile or credentials. Then for null username or password. Then ensuring
-        username within request body matches username in URL */
-        if (user.getCredentials() == null || user.getProfile() == null)
-            throw new NotAuthorizedException("Must Provide Profile And Credentials!");
-        if (user.getCredentials().getUsername() == null || user.getCredentials().getPassword() == null)
-            throw new NotAuthorizedException("Must Provide Credentials!");
-        if (!username.equals(user.getCredentials().getUsername()))
-            throw new NotAuthorizedException("Invalid Username");
-        /* Find User in DB based on URL username and request body password, if
-        empty, unable to find, throw bad request. Otherwise, User theUser equals the user we found */
-        Optional<User> opUser = userRepository.
-                findByCredentialsUsernameAndCredentialsPasswordAndDeletedFalse(
-                        username, user.getCredentials().getPassword());
+    public PageDTO<TweetRespDTO> getMentions(String username, Integer limit, String before, String after) {
+        Optional<User> opUser = userRepository.findByCredentialsUsernameAndDeletedFalse(username);
         if (opUser.isEmpty())
+            throw new NotFoundException("Unable To Find Username '" + username + "'");
+        Long userId = opUser.get().getId();
+        int pageSize = Pagination.limit(limit);
+        List<Tweet> mentionedTweets = Pagination.fetch(before, after,
+                cursor -> tweetRepository.findMentionsBefore(userId, cursor.getId(), PageRequest.of(0, pageSize)),
+                cursor -> tweetRepository.findMentionsAfter(userId, cursor.getId(), PageRequest.of(0, pageSize)));
+        return new PageDTO<>(tweetsToDTOs(mentionedTweets), Pagination.nextCursor(mentionedTweets, pageSize, after != null, Cursor::of));
+    }
+
+    @Override
+    public PageDTO<TweetRespDTO> getFeed(String username, Integer limit, String cursor) {
+        Optional<User> opUser = userRepository.findByCredentialsUsernameAndDeletedFalse(username);
+        if (opUser.isEmpty())
+            throw new NotFoundException("Unable To Find Username '" + username + "'");
+        /* The timeline is precomputed when tweets are posted and when follows change, so this reads one page
+        of the user's entries, already in reverse-chronological order, starting after the given cursor */
+        int pageSize = Pagination.limit(limit);
+        List<Tweet> page = timelineService.getTimeline(opUser.get(), Cursor.decode(cursor), pageSize);
+        return new PageDTO<>(tweetsToDTOs(page), Pagination.nextCursor(page, pageSize, Cursor::of));
+    }
+
+    @Override
+    public UserRespDTO updateUser(String username, UserReqDTO user, String authorization) {
+        SessionService.Principal principal = pathPrincipal(authorization, username);
+        Optional<User> opUser;
+        if (principal != null) {
+            // A token stands in for the credentials, but the profile is still required
+            if (user.getProfile() == null)
+                throw new NotAuthorizedException("Must Provide Profile And Credentials!");
+            opUser = userRepository.findById(principal.userId());
+        } else {
+            /* Checking for null profile or credentials. Then for null username or password. Then ensuring
+            username within request body matches username in URL */
+            if (user.getCredentials() == null || user.getProfile() == null)
+                throw new NotAuthorizedException("Must Provide Profile And Credentials!");
+            if (user.getCredentials().getUsername() == null || user.getCredentials().getPassword() == null)
+                throw new NotAuthorizedException("Must Provide Credentials!");
+            if (!username.equals(user.getCredentials().getUsername()))
+                throw new NotAuthorizedException("Invalid Username");
+            /* Find User in DB based on URL username and request body password, if
+            empty, unable to find, throw bad request. Otherwise, User theUser equals the user we found */
+            opUser = userRepository.
+                    findByCredentialsUsernameAndCredentialsPasswordAndDeletedFalse(
+                            username, user.getCredentials().getPassword());
+        }
+        if (opUser.isEmpty() || opUser.get().isDeleted())
             throw new BadRequestException("Invalid Credentials!");
         User theUser = opUser.get();
         /* Null checks necessary to avoid 500 level errors from null pointer exceptions, setting necessary
@@ -193,6 +212,7 @@ public class UserServiceImpl implements UserService {
         UserRespDTO userRespDTO = userMapper.entityToDTO(theUser);
         userRespDTO.setUsername(theUser.getCredentials().getUsername());
         userRepository.save(theUser);
+        sessionService.refreshUser(theUser.getId(), userRespDTO);
         return userRespDTO;
     }
 
@@ -207,9 +227,8 @@ public class UserServiceImpl implements UserService {
                 || credentials.getUsername() == null)
             throw new BadRequestException("Must Include Email, Phone, First Name, Last Name, Password, and Username");
         String username = credentials.getUsername();
-        for (int i = 0; i < username.length(); i++)
-            if (!allowedCharacters.contains(username.toUpperCase().charAt(i)))
-                throw new BadRequestException("Username Must Not Contain Special Characters");
+        if (!ContentTokenizer.isWord(username))
+            throw new BadRequestException("Username Must Not Contain Special Characters");
         for (User tempUser : userRepository.findAll()) {
             if (tempUser.getCredentials().getPassword().equals(credentials.getPassword())
                     && tempUser.getCredentials().getUsername().equals(credentials.getUsername())) {
@@ -220,6 +239,7 @@ public class UserServiceImpl implements UserService {
                     User restoredUser = deletedUser.get();
                     restoredUser.setDeleted(false);
                     userRepository.save(restoredUser);
+                    followGraph.setDeleted(restoredUser.getId(), false);
                     UserRespDTO restoredUserDTO = userMapper.entityToDTO(restoredUser);
                     restoredUserDTO.setUsername(restoredUser.getCredentials().getUsername());
                     return restoredUserDTO;
@@ -234,65 +254,226 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public void followUser(String username, Credentials credentials) {
+    public void followUser(String username, Credentials credentials, String authorization) {
         Optional<User> opToBeFollowed = userRepository.findByCredentialsUsernameAndDeletedFalse(username);
         if (opToBeFollowed.isEmpty())
             throw new NotFoundException("Unable To Find Username '" + username + "'");
         User toBeFollowed = opToBeFollowed.get();
 
-        Optional<User> opUser = userRepository
-                .findByCredentialsUsernameAndCredentialsPasswordAndDeletedFalse(
-                        credentials.getUsername(), credentials.getPassword());
-        if (opUser.isEmpty())
-            throw new NotAuthorizedException("Not Authorized: Could Not Verify Credentials");
-
-        User user = opUser.get();
-        if (user.getFollowing().contains(toBeFollowed))
+        Long userId = authenticatedId(authorization, credentials);
+        if (followGraph.follows(userId, toBeFollowed.getId()))
             throw new BadRequestException("Already following " + username + "!");
-
-        user.addFollowing(toBeFollowed);
-        userRepository.saveAndFlush(user);
+        /* The unique index settles a race between two requests that both passed the graph check. Only the
+        request whose row went in touches the graph, so a loser cannot restore an edge unfollowed since. */
+        boolean added = userRepository.addFollow(userId, toBeFollowed.getId()) > 0;
+        if (!added)
+            throw new BadRequestException("Already following " + username + "!");
+        followGraph.follow(userId, toBeFollowed.getId());
+        suggestionService.invalidate(userId);
+        timelineService.backfill(userId, toBeFollowed.getId());
     }
 
     @Override
-    public void unfollowUser(String username, Credentials credentials) {
+    public void unfollowUser(String username, Credentials credentials, String authorization) {
         Optional<User> opToUnfollow = userRepository.findByCredentialsUsernameAndDeletedFalse(username);
         if (opToUnfollow.isEmpty())
             throw new NotFoundException("Unable To Find Username '" + username + "'");
         User toUnfollow = opToUnfollow.get();
 
-        Optional<User> opUser = userRepository
-                .findByCredentialsUsernameAndCredentialsPasswordAndDeletedFalse(
-                        credentials.getUsername(), credentials.getPassword());
-        if (opUser.isEmpty())
-            throw new NotAuthorizedException("Not Authorized: Could Not Verify Credentials");
-
-        User user = opUser.get();
+        Long userId = authenticatedId(authorization, credentials);
 
-        if (!user.getFollowing().contains(toUnfollow))
+        if (!followGraph.follows(userId, toUnfollow.getId()))
             throw new BadRequestException("You currently do not follow " + username + "!");
+        boolean removed = userRepository.removeFollow(userId, toUnfollow.getId()) > 0;
+        if (!removed)
+            throw new BadRequestException("You currently do not follow " + username + "!");
+        followGraph.unfollow(userId, toUnfollow.getId());
+        suggestionService.invalidate(userId);
+        timelineService.prune(userId, toUnfollow.getId());
+    }
+
+    @Override
+    public List<FollowResultDTO> bulkFollow(String username, BulkFollowReqDTO request, String authorization) {
+        SessionService.Principal principal = pathPrincipal(authorization, username);
+        CredentialsDTO credentials = request.getCredentials();
+        if (principal == null) {
+            if (credentials == null || credentials.getUsername() == null || credentials.getPassword() == null)
+                throw new NotAuthorizedException("Invalid Credentials!");
+            if (!credentials.getUsername().equals(username))
+                throw new NotAuthorizedException("Invalid Username");
+        }
+        Set<String> toFollow = new LinkedHashSet<>(request.getFollow() == null ? List.of() : request.getFollow());
+        Set<String> toUnfollow = new LinkedHashSet<>(request.getUnfollow() == null ? List.of() : request.getUnfollow());
+        if (toFollow.size() + toUnfollow.size() > MAX_BATCH_USERNAMES)
+            throw new BadRequestException("At Most " + MAX_BATCH_USERNAMES + " Usernames May Be Provided");
+        for (String target : toFollow)
+            if (toUnfollow.contains(target))
+                throw new BadRequestException("Cannot Both Follow And Unfollow '" + target + "'");
+
+        // Credentials are checked once for the whole batch
+        Long userId = principal != null ? principal.userId() : authenticatedId(null, username, credentials.getPassword());
 
-        user.removeFollowing(toUnfollow);
-        userRepository.saveAndFlush(user);
+        Set<String> usernames = new HashSet<>(toFollow);
+        usernames.addAll(toUnfollow);
+        Map<String, Long> ids = usernames.isEmpty() ? new HashMap<>() : idsByUsernames(usernames);
+
+        /* The graph already knows most answers, so only the changes it expects are written, each direction as
+        one batch. The batch's row counts still decide the result, which also settles concurrent requests. */
+        Map<String, FollowResultDTO.Result> results = new HashMap<>();
+        List<String> followWrites = new ArrayList<>();
+        for (String target : toFollow) {
+            Long id = ids.get(target);
+            if (id == null)
+                results.put(target, FollowResultDTO.Result.NOT_FOUND);
+            else if (followGraph.follows(userId, id))
+                results.put(target, FollowResultDTO.Result.ALREADY_FOLLOWING);
+            else
+                followWrites.add(target);
+        }
+        List<String> unfollowWrites = new ArrayList<>();
+        for (String target : toUnfollow) {
+            Long id = ids.get(target);
+            if (id == null)
+                results.put(target, FollowResultDTO.Result.NOT_FOUND);
+            else if (!followGraph.follows(userId, id))
+                results.put(target, FollowResultDTO.Result.NOT_FOLLOWING);
+            else
+                unfollowWrites.add(target);
+        }
+
+        if (!followWrites.isEmpty()) {
+            int[] written = userRepository.addFollows(userId, followWrites.stream().map(ids::get).toList());
+            for (int i = 0; i < written.length; i++) {
+                Long id = ids.get(followWrites.get(i));
+                if (written[i] != 0) {
+                    followGraph.follow(userId, id);
+                    results.put(followWrites.get(i), FollowResultDTO.Result.FOLLOWED);
+                    timelineService.backfill(userId, id);
+                } else {
+                    results.put(followWrites.get(i), FollowResultDTO.Result.ALREADY_FOLLOWING);
+                }
+            }
+        }
+        if (!unfollowWrites.isEmpty()) {
+            int[] written = userRepository.removeFollows(userId, unfollowWrites.stream().map(ids::get).toList());
+            for (int i = 0; i < written.length; i++) {
+                Long id = ids.get(unfollowWrites.get(i));
+                if (written[i] != 0) {
+                    followGraph.unfollow(userId, id);
+                    results.put(unfollowWrites.get(i), FollowResultDTO.Result.UNFOLLOWED);
+                    timelineService.prune(userId, id);
+                } else {
+                    results.put(unfollowWrites.get(i), FollowResultDTO.Result.NOT_FOLLOWING);
+                }
+            }
+        }
+        if (!followWrites.isEmpty() || !unfollowWrites.isEmpty())
+            suggestionService.invalidate(userId);
+
+        // Follows first, then unfollows, each in the order asked for
+        List<FollowResultDTO> response = new ArrayList<>();
+        for (String target : toFollow)
+            response.add(new FollowResultDTO(target, results.get(target)));
+        for (String target : toUnfollow)
+            response.add(new FollowResultDTO(target, results.get(target)));
+        return response;
     }
 
     @Override
-    public UserRespDTO deleteUser(String username, CredentialsDTO credentials) {
-        if (credentials.getUsername() == null || credentials.getPassword() == null)
-            throw new NotAuthorizedException("Invalid Credentials!");
-        if (!credentials.getUsername().equals(username))
-            throw new NotAuthorizedException("Invalid Username");
-        Optional<User> opUser = userRepository
-                .findByCredentialsUsernameAndCredentialsPasswordAndDeletedFalse(
-                        username, credentials.getPassword());
-        if (opUser.isEmpty())
+    public UserRespDTO deleteUser(String username, CredentialsDTO credentials, String authorization) {
+        SessionService.Principal principal = pathPrincipal(authorization, username);
+        Optional<User> opUser;
+        if (principal != null) {
+            opUser = userRepository.findById(principal.userId());
+        } else {
+            if (credentials == null || credentials.getUsername() == null || credentials.getPassword() == null)
+                throw new NotAuthorizedException("Invalid Credentials!");
+            if (!credentials.getUsername().equals(username))
+                throw new NotAuthorizedException("Invalid Username");
+            opUser = userRepository
+                    .findByCredentialsUsernameAndCredentialsPasswordAndDeletedFalse(
+                            username, credentials.getPassword());
+        }
+        if (opUser.isEmpty() || opUser.get().isDeleted())
             throw new NotFoundException("Unable To Find Username '" + username + "' With Provided Credentials");
         User user = opUser.get();
         user.setDeleted(true);
         userRepository.save(user);
+        followGraph.setDeleted(user.getId(), true);
+        sessionService.revokeUser(user.getId());
         UserRespDTO userRespDTO = userMapper.entityToDTO(user);
         userRespDTO.setUsername(user.getCredentials().getUsername());
         return userRespDTO;
     }
 
+    // HELPER FUNCTIONS
+    private List<TweetRespDTO> tweetsToDTOs(List<Tweet> tweets) {
+        List<TweetRespDTO> tweetDTOs = new ArrayList<>();
+        for (Tweet tweet : tweets) {
+            TweetRespDTO tweetDTO = tweetMapper.entityToDTO(tweet);
+            tweetDTO.getAuthor().setUsername(tweet.getAuthor().getCredentials().getUsername());
+            tweetDTOs.add(tweetDTO);
+        }
+        tweetStatsService.fillCounts(tweetDTOs);
+        return tweetDTOs;
+    }
+
+    /* The user behind a Bearer token, which must be the user named in the path, or null when the request has
+    no token */
+    private SessionService.Principal pathPrincipal(String authorization, String username) {
+        SessionService.Principal principal = sessionService.principal(authorization);
+        if (principal != null && !principal.username().equals(username))
+            throw new NotAuthorizedException("Invalid Username");
+        return principal;
+    }
+
+    private Long authenticatedId(String authorization, Credentials credentials) {
+        return credentials == null
+                ? authenticatedId(authorization, null, null)
+                : authenticatedId(authorization, credentials.getUsername(), credentials.getPassword());
+    }
+
+    /* The id behind a Bearer token, which needs no query, or when the request has none, the id of the user
+    the credentials verify */
+    private Long authenticatedId(String authorization, String username, String password) {
+        SessionService.Principal principal = sessionService.principal(authorization);
+        if (principal != null)
+            return principal.userId();
+        Optional<User> opUser = username == null || password == null ? Optional.empty() : userRepository
+                .findByCredentialsUsernameAndCredentialsPasswordAndDeletedFalse(username, password);
+        if (opUser.isEmpty())
+            throw new NotAuthorizedException("Not Authorized: Could Not Verify Credentials");
+        return opUser.get().getId();
+    }
+
+    // Ids of the active accounts among the given usernames, resolved in one query
+    private Map<String, Long> idsByUsernames(Collection<String> usernames) {
+        Map<String, Long> ids = new HashMap<>();
+        for (Object[] row : userRepository.findIdsByUsernames(usernames))
+            ids.put((String) row[1], (Long) row[0]);
+        return ids;
+    }
+
+    // Loads a page of ids from the follow graph in one query, keeping the page's order
+    private List<User> usersByIds(List<Long> ids) {
+        Map<Long, User> byId = new HashMap<>();
+        for (User user : userRepository.findAllById(ids))
+            byId.put(user.getId(), user);
+        List<User> users = new ArrayList<>();
+        for (Long id : ids)
+            if (byId.containsKey(id))
+                users.add(byId.get(id));
+        return users;
+    }
+
+    private List<UserRespDTO> usersToDTOs(List<User> users) {
+        List<UserRespDTO> userDTOs = new ArrayList<>();
+        for (User user : users) {
+            UserRespDTO userDTO = userMapper.entityToDTO(user);
+            userDTO.setUsername(user.getCredentials().getUsername());
+            userDTOs.add(userDTO);
+        }
+        return userDTOs;
+    }
+
 }
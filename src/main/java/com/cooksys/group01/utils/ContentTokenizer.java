@@ -0,0 +1,77 @@
+package com.cooksys.group01.utils;
+
+/* Finds the mentions and hashtags in tweet content in a single pass over its characters. A token is an '@'
+or '#' at the start of a word followed by word characters, and ends at the first character that is not one;
+the rest of that word is skipped. Words are separated by any whitespace, not just spaces. Character classes
+come from a lookup table instead of case conversion and list searches, and tokens are reported as offsets
+so callers only allocate strings for what they keep. */
+public final class ContentTokenizer {
+
+    public enum Type { MENTION, HASHTAG }
+
+    @FunctionalInterface
+    public interface Handler {
+        // start is the offset of the '@' or '#', end is exclusive
+        void token(Type type, int start, int end);
+    }
+
+    private static final byte WORD = 1;
+    private static final byte SPACE = 2;
+    private static final byte[] CLASSES = new byte[128];
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++)
+            CLASSES[c] = WORD;
+        for (char c = 'A'; c <= 'Z'; c++)
+            CLASSES[c] = WORD;
+        for (char c = '0'; c <= '9'; c++)
+            CLASSES[c] = WORD;
+        CLASSES['{'] = WORD;
+        CLASSES['}'] = WORD;
+        for (char c : new char[]{' ', '\t', '\n', '\r', '\f', 0x0B})
+            CLASSES[c] = SPACE;
+    }
+
+    private ContentTokenizer() {
+    }
+
+    public static void tokenize(String content, Handler handler) {
+        int length = content.length();
+        int i = 0;
+        while (i < length) {
+            // Skip to the start of the next word
+            while (i < length && isSpace(content.charAt(i)))
+                i++;
+            if (i == length)
+                return;
+            char first = content.charAt(i);
+            if (first == '@' || first == '#') {
+                int start = i++;
+                while (i < length && isWordChar(content.charAt(i)))
+                    i++;
+                // A lone '@' or '#' is not a token
+                if (i > start + 1)
+                    handler.token(first == '@' ? Type.MENTION : Type.HASHTAG, start, i);
+            }
+            // Whatever is left of the word cannot start a token
+            while (i < length && !isSpace(content.charAt(i)))
+                i++;
+        }
+    }
+
+    public static boolean isWord(String value) {
+        for (int i = 0; i < value.length(); i++)
+            if (!isWordChar(value.charAt(i)))
+                return false;
+        return true;
+    }
+
+    // HELPER FUNCTIONS
+    private static boolean isWordChar(char c) {
+        return c < 128 && CLASSES[c] == WORD;
+    }
+
+    private static boolean isSpace(char c) {
+        return c < 128 && CLASSES[c] == SPACE;
+    }
+}
@@ -0,0 +1,60 @@
+package com.cooksys.group01.utils;
+
+import java.util.Arrays;
+
+/* Fixed-size frequency estimator: every key increments one counter per row and its count is estimated as
+the smallest of those counters, so estimates can only overcount. Sketches of the same shape can be added
+and subtracted, which is what lets time windows be slid without revisiting old events. */
+public class CountMinSketch {
+
+    private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F, 0x165667B1, 0xD3A2646C};
+
+    private final int[][] counts;
+    private final int mask;
+
+    public CountMinSketch(int depth, int width) {
+        if (depth > SEEDS.length || Integer.bitCount(width) != 1)
+            throw new IllegalArgumentException("Depth must be at most " + SEEDS.length + " and width a power of two");
+        this.counts = new int[depth][width];
+        this.mask = width - 1;
+    }
+
+    public void add(String key) {
+        int hash = key.hashCode();
+        for (int row = 0; row < counts.length; row++)
+            counts[row][index(hash, row)]++;
+    }
+
+    public long estimate(String key) {
+        int hash = key.hashCode();
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < counts.length; row++)
+            min = Math.min(min, counts[row][index(hash, row)]);
+        return min;
+    }
+
+    public void add(CountMinSketch other) {
+        for (int row = 0; row < counts.length; row++)
+            for (int col = 0; col < counts[row].length; col++)
+                counts[row][col] += other.counts[row][col];
+    }
+
+    public void subtract(CountMinSketch other) {
+        for (int row = 0; row < counts.length; row++)
+            for (int col = 0; col < counts[row].length; col++)
+                counts[row][col] -= other.counts[row][col];
+    }
+
+    public void clear() {
+        for (int[] row : counts)
+            Arrays.fill(row, 0);
+    }
+
+    private int index(int hash, int row) {
+        int mixed = (hash ^ SEEDS[row]) * 0x85EBCA6B;
+        mixed ^= mixed >>> 13;
+        mixed *= 0xC2B2AE35;
+        mixed ^= mixed >>> 16;
+        return mixed & mask;
+    }
+}
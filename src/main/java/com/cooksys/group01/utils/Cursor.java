@@ -0,0 +1,42 @@
+package com.cooksys.group01.utils;
+
+import com.cooksys.group01.entities.Tweet;
+import com.cooksys.group01.entities.User;
+import com.cooksys.group01.exceptions.BadRequestException;
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/* Keyset position handed to clients as an opaque token. Tweet pages are ordered newest first by id, which
+follows posting time, and user pages by id as well, so a page resumes with the rows strictly past the
+cursor instead of skipping over an OFFSET */
+@Value
+public class Cursor {
+
+    public static final Cursor FIRST = new Cursor(Long.MAX_VALUE);
+
+    long id;
+
+    public static Cursor of(Tweet tweet) {
+        return new Cursor(tweet.getId());
+    }
+
+    public static Cursor of(User user) {
+        return new Cursor(user.getId());
+    }
+
+    public static Cursor decode(String token) {
+        if (token == null || token.isBlank())
+            return FIRST;
+        try {
+            return new Cursor(Long.parseLong(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid Cursor '" + token + "'");
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(String.valueOf(id).getBytes(StandardCharsets.UTF_8));
+    }
+}
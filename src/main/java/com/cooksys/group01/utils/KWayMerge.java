@@ -0,0 +1,34 @@
+package com.cooksys.group01.utils;
+
+import java.util.*;
+import java.util.function.Function;
+
+public final class KWayMerge {
+
+    private KWayMerge() {
+    }
+
+    /* Merges sources that are each already sorted by the given order, keeping the head of every source in a
+    heap. Items whose key was already emitted are skipped, and no source is read past the limit-th item. */
+    public static <T> List<T> merge(List<Iterator<T>> sources, Comparator<T> order, Function<T, ?> key, int limit) {
+        PriorityQueue<Head<T>> heap = new PriorityQueue<>(Math.max(1, sources.size()),
+                (a, b) -> order.compare(a.item, b.item));
+        for (Iterator<T> source : sources)
+            if (source.hasNext())
+                heap.add(new Head<>(source.next(), source));
+
+        Set<Object> seen = new HashSet<>();
+        List<T> merged = new ArrayList<>(limit);
+        while (!heap.isEmpty() && merged.size() < limit) {
+            Head<T> head = heap.poll();
+            if (seen.add(key.apply(head.item)))
+                merged.add(head.item);
+            if (head.source.hasNext())
+                heap.add(new Head<>(head.source.next(), head.source));
+        }
+        return merged;
+    }
+
+    private record Head<T>(T item, Iterator<T> source) {
+    }
+}
@@ -0,0 +1,138 @@
+package com.cooksys.group01.utils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.LongPredicate;
+
+/* Counts how many of a set of sorted id arrays contain each id. The arrays are split in halves on a fork-join
+pool until a few remain, which are concatenated, sorted and run-length counted; halves are then combined by a
+linear merge that adds the counts of ids present in both. */
+public final class MergeCount {
+
+    // Arrays counted directly by one task instead of being split further
+    private static final int LEAF_ARRAYS = 16;
+
+    // ids ascending, counts[i] is the number of arrays containing ids[i]
+    public record Counts(long[] ids, int[] counts) {
+
+        public int size() {
+            return ids.length;
+        }
+    }
+
+    private MergeCount() {
+    }
+
+    public static Counts count(List<long[]> sortedArrays, ForkJoinPool pool) {
+        if (sortedArrays.isEmpty())
+            return new Counts(new long[0], new int[0]);
+        return pool.invoke(new CountTask(sortedArrays, 0, sortedArrays.size()));
+    }
+
+    /* The limit highest counts, highest first and lower ids first among equal counts, leaving out ids the
+    predicate rejects */
+    public static Counts top(Counts counts, int limit, LongPredicate skip) {
+        if (limit <= 0)
+            return new Counts(new long[0], new int[0]);
+        PriorityQueue<Integer> heap = new PriorityQueue<>(limit + 1, (a, b) -> counts.counts[a] != counts.counts[b]
+                ? Integer.compare(counts.counts[a], counts.counts[b])
+                : Long.compare(counts.ids[b], counts.ids[a]));
+        for (int i = 0; i < counts.size(); i++) {
+            if (heap.size() == limit && counts.counts[i] <= counts.counts[heap.peek()])
+                continue;
+            if (skip.test(counts.ids[i]))
+                continue;
+            heap.add(i);
+            if (heap.size() > limit)
+                heap.poll();
+        }
+        long[] ids = new long[heap.size()];
+        int[] topCounts = new int[heap.size()];
+        for (int i = ids.length - 1; i >= 0; i--) {
+            int at = heap.poll();
+            ids[i] = counts.ids[at];
+            topCounts[i] = counts.counts[at];
+        }
+        return new Counts(ids, topCounts);
+    }
+
+    // HELPER FUNCTIONS
+    private static Counts countLeaf(List<long[]> arrays) {
+        int total = 0;
+        for (long[] array : arrays)
+            total += array.length;
+        long[] all = new long[total];
+        int at = 0;
+        for (long[] array : arrays) {
+            System.arraycopy(array, 0, all, at, array.length);
+            at += array.length;
+        }
+        Arrays.sort(all);
+        long[] ids = new long[total];
+        int[] counts = new int[total];
+        int size = 0;
+        for (int i = 0; i < total; i++) {
+            if (size > 0 && ids[size - 1] == all[i]) {
+                counts[size - 1]++;
+            } else {
+                ids[size] = all[i];
+                counts[size++] = 1;
+            }
+        }
+        return new Counts(Arrays.copyOf(ids, size), Arrays.copyOf(counts, size));
+    }
+
+    private static Counts merge(Counts left, Counts right) {
+        long[] ids = new long[left.size() + right.size()];
+        int[] counts = new int[ids.length];
+        int i = 0, j = 0, size = 0;
+        while (i < left.size() && j < right.size()) {
+            long a = left.ids[i], b = right.ids[j];
+            if (a == b) {
+                ids[size] = a;
+                counts[size++] = left.counts[i++] + right.counts[j++];
+            } else if (a < b) {
+                ids[size] = a;
+                counts[size++] = left.counts[i++];
+            } else {
+                ids[size] = b;
+                counts[size++] = right.counts[j++];
+            }
+        }
+        for (; i < left.size(); i++, size++) {
+            ids[size] = left.ids[i];
+            counts[size] = left.counts[i];
+        }
+        for (; j < right.size(); j++, size++) {
+            ids[size] = right.ids[j];
+            counts[size] = right.counts[j];
+        }
+        return size == ids.length ? new Counts(ids, counts) : new Counts(Arrays.copyOf(ids, size), Arrays.copyOf(counts, size));
+    }
+
+    private static final class CountTask extends RecursiveTask<Counts> {
+        private final List<long[]> arrays;
+        private final int from;
+        private final int to;
+
+        CountTask(List<long[]> arrays, int from, int to) {
+            this.arrays = arrays;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Counts compute() {
+            if (to - from <= LEAF_ARRAYS)
+                return countLeaf(arrays.subList(from, to));
+            int mid = (from + to) >>> 1;
+            CountTask left = new CountTask(arrays, from, mid);
+            left.fork();
+            Counts right = new CountTask(arrays, mid, to).compute();
+            return merge(left.join(), right);
+        }
+    }
+}
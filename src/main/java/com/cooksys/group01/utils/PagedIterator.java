@@ -0,0 +1,46 @@
+package com.cooksys.group01.utils;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/* Walks a keyset-ordered source one page at a time, only querying for the next page once the
+current one has been consumed */
+public class PagedIterator<T> implements Iterator<T> {
+
+    private final Function<Cursor, List<T>> loader;
+    private final Function<T, Cursor> position;
+    private final int pageSize;
+
+    private Cursor cursor;
+    private Iterator<T> page = Collections.emptyIterator();
+    private boolean exhausted;
+
+    public PagedIterator(Cursor start, int pageSize, Function<Cursor, List<T>> loader, Function<T, Cursor> position) {
+        this.cursor = start;
+        this.pageSize = pageSize;
+        this.loader = loader;
+        this.position = position;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!page.hasNext() && !exhausted) {
+            List<T> items = loader.apply(cursor);
+            exhausted = items.size() < pageSize;
+            if (!items.isEmpty())
+                cursor = position.apply(items.get(items.size() - 1));
+            page = items.iterator();
+        }
+        return page.hasNext();
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        return page.next();
+    }
+}
@@ -0,0 +1,50 @@
+package com.cooksys.group01.utils;
+
+import com.cooksys.group01.exceptions.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+public final class Pagination {
+
+    public static final int DEFAULT_LIMIT = 20;
+
+    public static final int MAX_LIMIT = 100;
+
+    private Pagination() {
+    }
+
+    public static int limit(Integer requested) {
+        if (requested == null || requested < 1)
+            return DEFAULT_LIMIT;
+        return Math.min(requested, MAX_LIMIT);
+    }
+
+    /* Pages are always returned newest first. 'before' walks towards older rows and 'after' towards newer
+    ones, which are read in ascending order from the cursor and then flipped. Without either, the newest
+    page is returned. */
+    public static <T> List<T> fetch(String before, String after, Function<Cursor, List<T>> olderThan,
+                                    Function<Cursor, List<T>> newerThan) {
+        if (before != null && after != null)
+            throw new BadRequestException("Only One Of 'before' Or 'after' May Be Provided");
+        if (after == null)
+            return olderThan.apply(Cursor.decode(before));
+        List<T> page = new ArrayList<>(newerThan.apply(Cursor.decode(after)));
+        Collections.reverse(page);
+        return page;
+    }
+
+    public static <T> String nextCursor(List<T> page, int limit, Function<T, Cursor> position) {
+        return nextCursor(page, limit, false, position);
+    }
+
+    /* A short page means there is nothing further to fetch, so no cursor is handed back. Otherwise the cursor
+    continues in the direction that was asked for: past the oldest row for 'before', the newest for 'after'. */
+    public static <T> String nextCursor(List<T> page, int limit, boolean newer, Function<T, Cursor> position) {
+        if (page.size() < limit)
+            return null;
+        return position.apply(newer ? page.get(0) : page.get(page.size() - 1)).encode();
+    }
+}
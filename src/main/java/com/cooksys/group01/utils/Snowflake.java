@@ -0,0 +1,44 @@
+package com.cooksys.group01.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/* 53-bit ids laid out as 41 bits of milliseconds since EPOCH, a 4-bit node id and an 8-bit sequence, so
+ids from one node strictly increase and ids from all nodes sort by the time they were issued. 53 bits is as
+much as a JavaScript number holds exactly, so clients that parse ids from JSON as numbers get them back
+unchanged. The last issued time and sequence live in one AtomicLong and each id is max(now, last + 1) on it:
+a burst past 256 ids in a millisecond, or a clock that steps backwards, carries on from the last id instead
+of repeating one, and the ids catch back up with the clock once it passes them. */
+public class Snowflake {
+
+    // 2023-01-01T00:00:00Z; 41 bits of milliseconds from here run out in 2092
+    public static final long EPOCH = 1672531200000L;
+
+    static final int NODE_BITS = 4;
+    static final int SEQUENCE_BITS = 8;
+
+    public static final long MAX_NODE = (1L << NODE_BITS) - 1;
+
+    private final long node;
+    private final LongSupplier clock;
+    private final AtomicLong state = new AtomicLong();
+
+    public Snowflake(long node) {
+        this(node, System::currentTimeMillis);
+    }
+
+    public Snowflake(long node, LongSupplier clock) {
+        if (node < 0 || node > MAX_NODE)
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE + ", was " + node);
+        this.node = node;
+        this.clock = clock;
+    }
+
+    public long nextId() {
+        long now = (clock.getAsLong() - EPOCH) << SEQUENCE_BITS;
+        long next = state.updateAndGet(last -> Math.max(now, last + 1));
+        long millis = next >>> SEQUENCE_BITS;
+        long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+        return millis << (NODE_BITS + SEQUENCE_BITS) | node << SEQUENCE_BITS | sequence;
+    }
+}
@@ -0,0 +1,132 @@
+package com.cooksys.group01.benchmarks;
+
+import com.cooksys.group01.utils.ContentTokenizer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/* Compares ContentTokenizer with the split(" ") parsing createTweet and createUser used before it, on
+280-character tweets with a realistic mix of words, mentions, hashtags and punctuation. Run it with
+'mvn test-compile' and then this class's main method on the test classpath. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContentTokenizerBenchmark {
+
+    private static final String[] WORDS = {"the", "release", "is", "out", "today", "and", "it", "looks", "great",
+            "can't", "wait", "to", "try", "this", "weekend!", "thanks", "everyone", "who", "helped,", "seriously."};
+
+    private static final List<Character> LEGACY_ALLOWED = new ArrayList<>(List.of('A', 'B', 'C', 'D', 'E', 'F',
+            'G', 'H', 'I', 'J', 'K', 'L', 'M', 'N', 'O', 'P', 'Q', 'R', 'S', 'T', 'U', 'V', 'W', 'X', 'Y', 'Z',
+            '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', '{', '}'));
+
+    private String[] tweets;
+    private String[] usernames;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        tweets = new String[1024];
+        for (int i = 0; i < tweets.length; i++)
+            tweets[i] = tweet(random);
+        usernames = new String[1024];
+        for (int i = 0; i < usernames.length; i++)
+            usernames[i] = "user" + random.nextInt(1_000_000) + (random.nextInt(20) == 0 ? "!" : "");
+    }
+
+    @Benchmark
+    public void legacyTweet(Blackhole blackhole) {
+        Set<String> mentions = new HashSet<>();
+        Set<String> hashtags = new HashSet<>();
+        for (String word : nextTweet().split(" ")) {
+            String toAdd = "";
+            int i = 0;
+            if (word.startsWith("@")) {
+                i++;
+                while (i < word.length() && LEGACY_ALLOWED.contains(word.toUpperCase().charAt(i))) {
+                    toAdd += word.charAt(i);
+                    i++;
+                }
+                mentions.add(toAdd);
+            } else if (word.startsWith("#")) {
+                toAdd += "#";
+                i++;
+                while (i < word.length() && LEGACY_ALLOWED.contains(word.toUpperCase().charAt(i))) {
+                    toAdd += word.charAt(i);
+                    i++;
+                }
+                hashtags.add(toAdd);
+            }
+        }
+        blackhole.consume(mentions);
+        blackhole.consume(hashtags);
+    }
+
+    @Benchmark
+    public void tokenizerTweet(Blackhole blackhole) {
+        String content = nextTweet();
+        Set<String> mentions = new HashSet<>();
+        Set<String> hashtags = new HashSet<>();
+        ContentTokenizer.tokenize(content, (type, start, end) -> {
+            if (type == ContentTokenizer.Type.MENTION)
+                mentions.add(content.substring(start + 1, end));
+            else
+                hashtags.add(content.substring(start, end));
+        });
+        blackhole.consume(mentions);
+        blackhole.consume(hashtags);
+    }
+
+    // Offsets only, which is the cost of the scan itself
+    @Benchmark
+    public void tokenizerOffsets(Blackhole blackhole) {
+        ContentTokenizer.tokenize(nextTweet(), (type, start, end) -> blackhole.consume(end - start));
+    }
+
+    @Benchmark
+    public boolean legacyUsername() {
+        String username = usernames[next++ & (usernames.length - 1)];
+        for (int i = 0; i < username.length(); i++)
+            if (!LEGACY_ALLOWED.contains(username.toUpperCase().charAt(i)))
+                return false;
+        return true;
+    }
+
+    @Benchmark
+    public boolean tokenizerUsername() {
+        return ContentTokenizer.isWord(usernames[next++ & (usernames.length - 1)]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ContentTokenizerBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    // HELPER FUNCTIONS
+    private String nextTweet() {
+        return tweets[next++ & (tweets.length - 1)];
+    }
+
+    private static String tweet(Random random) {
+        StringBuilder content = new StringBuilder(280);
+        while (content.length() < 260) {
+            int roll = random.nextInt(10);
+            if (roll == 0)
+                content.append('@').append("user").append(random.nextInt(500));
+            else if (roll == 1)
+                content.append('#').append("tag").append(random.nextInt(200));
+            else
+                content.append(WORDS[random.nextInt(WORDS.length)]);
+            content.append(random.nextInt(15) == 0 ? '\n' : ' ');
+        }
+        return content.substring(0, Math.min(content.length(), 280));
+    }
+}
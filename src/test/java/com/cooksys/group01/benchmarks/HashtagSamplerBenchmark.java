@@ -0,0 +1,50 @@
+package com.cooksys.group01.benchmarks;
+
+import com.cooksys.group01.index.HashtagSampler;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/* Latency of drawing a random hashtag from HashtagSampler as the number of tags grows from a thousand to ten
+million, in memory only. The draw should stay flat across populations; the contended variant shows the cost
+of the sampler's monitor when several requests draw at once. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class HashtagSamplerBenchmark {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    private int population;
+
+    private HashtagSampler sampler;
+
+    @Setup
+    public void setup() {
+        // Only load() touches the repository
+        sampler = new HashtagSampler(null);
+        for (long id = 1; id <= population; id++)
+            sampler.add(id);
+    }
+
+    @Benchmark
+    public OptionalLong sample() {
+        return sampler.sample();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public OptionalLong sampleContended() {
+        return sampler.sample();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(HashtagSamplerBenchmark.class.getSimpleName()).build()).run();
+    }
+}
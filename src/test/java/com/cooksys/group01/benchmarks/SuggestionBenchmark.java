@@ -0,0 +1,93 @@
+package com.cooksys.group01.benchmarks;
+
+import com.cooksys.group01.utils.MergeCount;
+import com.cooksys.group01.utils.Pagination;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/* Time to rank follow suggestions the way SuggestionServiceImpl does, for a user with thousands of followees
+on a synthetic power-law graph. Accounts join one at a time and mostly follow whoever already has followers
+(preferential attachment), with out-degrees drawn from a Pareto distribution, so popular accounts follow and
+are followed by many and their arrays dominate the count. The target is under 50 ms per ranking. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class SuggestionBenchmark {
+
+    private static final int USERS = 200_000;
+    private static final int MIN_DEGREE = 5;
+    private static final int MAX_DEGREE = 5_000;
+    private static final double PARETO_ALPHA = 1.3;
+    // Share of follows that pick an already followed account rather than a uniformly random one
+    private static final double PREFERENTIAL = 0.8;
+
+    @Param({"1000", "5000"})
+    private int followees;
+
+    private long[][] following;
+    private long subject;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        following = new long[USERS + 1][];
+        // Every follow target so far; a uniform pick from it is a pick weighted by follower count
+        long[] targets = new long[1 << 20];
+        int targetCount = 0;
+        for (int user = 0; user < USERS; user++) {
+            int degree = Math.min(user, Math.min(MAX_DEGREE,
+                    (int) (MIN_DEGREE / Math.pow(1 - random.nextDouble(), 1 / PARETO_ALPHA))));
+            Set<Long> followed = new HashSet<>();
+            while (followed.size() < degree)
+                followed.add(targetCount > 0 && random.nextDouble() < PREFERENTIAL
+                        ? targets[random.nextInt(targetCount)]
+                        : (long) random.nextInt(user));
+            following[user] = sorted(followed);
+            for (long target : following[user]) {
+                if (targetCount == targets.length)
+                    targets = Arrays.copyOf(targets, targetCount * 2);
+                targets[targetCount++] = target;
+            }
+        }
+
+        subject = USERS;
+        Set<Long> followed = new HashSet<>();
+        while (followed.size() < followees)
+            followed.add(targets[random.nextInt(targetCount)]);
+        following[USERS] = sorted(followed);
+    }
+
+    @Benchmark
+    public MergeCount.Counts rank() {
+        long[] subjectFollowing = following[(int) subject];
+        List<long[]> followeesFollowing = new ArrayList<>(subjectFollowing.length);
+        for (long followee : subjectFollowing)
+            followeesFollowing.add(following[(int) followee]);
+        MergeCount.Counts counts = MergeCount.count(followeesFollowing, ForkJoinPool.commonPool());
+        return MergeCount.top(counts, Pagination.MAX_LIMIT, candidate -> candidate == subject
+                || Arrays.binarySearch(subjectFollowing, candidate) >= 0);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SuggestionBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    // HELPER FUNCTIONS
+    private static long[] sorted(Set<Long> ids) {
+        long[] array = new long[ids.size()];
+        int i = 0;
+        for (Long id : ids)
+            array[i++] = id;
+        Arrays.sort(array);
+        return array;
+    }
+}
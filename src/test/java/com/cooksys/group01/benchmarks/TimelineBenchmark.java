@@ -0,0 +1,151 @@
+package com.cooksys.group01.benchmarks;
+
+import com.cooksys.group01.Group01Application;
+import com.cooksys.group01.entities.Tweet;
+import com.cooksys.group01.entities.User;
+import com.cooksys.group01.entities.embeddable.Credentials;
+import com.cooksys.group01.entities.embeddable.Profile;
+import com.cooksys.group01.index.FollowGraph;
+import com.cooksys.group01.repositories.TweetRepository;
+import com.cooksys.group01.repositories.UserRepository;
+import com.cooksys.group01.services.TimelineService;
+import com.cooksys.group01.utils.Cursor;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/* Write amplification and feed read latency of the hybrid timeline for a range of feed.celebrity-threshold
+values, against the test database. Authors have 50, 500 and 5,000 followers, so each threshold pushes a
+different share of them. post reports the timeline rows written per tweet as the 'rows' counter divided by
+'posts'; read is one page of a reader who follows every author, merging whatever was not pushed. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimelineBenchmark {
+
+    private static final int[] AUDIENCES = {50, 500, 5_000};
+    private static final int TWEETS_PER_AUTHOR = 200;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"100", "1000", "10000"})
+    private long threshold;
+
+    private ConfigurableApplicationContext context;
+    private TimelineService timelineService;
+    private TweetRepository tweetRepository;
+    private TransactionTemplate transactionTemplate;
+    private DistributionSummary fanOutRows;
+    private final List<User> authors = new ArrayList<>();
+    private User reader;
+    private int nextAuthor;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class WriteAmplification {
+        public long rows;
+        public long posts;
+    }
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(Group01Application.class)
+                .web(WebApplicationType.NONE)
+                .properties("feed.celebrity-threshold=" + threshold)
+                .run();
+        timelineService = context.getBean(TimelineService.class);
+        tweetRepository = context.getBean(TweetRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+
+        int audience = 0;
+        for (int size : AUDIENCES)
+            audience = Math.max(audience, size);
+        List<User> followers = new ArrayList<>();
+        for (int i = 0; i < audience; i++)
+            followers.add(user("follower" + i));
+        followers = userRepository.saveAll(followers);
+        reader = userRepository.save(user("reader"));
+
+        // Followers are written straight to the join table and the follow graph reloaded from it
+        List<Object[]> follows = new ArrayList<>();
+        for (int a = 0; a < AUDIENCES.length; a++) {
+            User author = userRepository.save(user("author" + a));
+            authors.add(author);
+            for (int i = 0; i < AUDIENCES[a]; i++)
+                follows.add(new Object[]{author.getId(), followers.get(i).getId()});
+            follows.add(new Object[]{author.getId(), reader.getId()});
+        }
+        context.getBean(JdbcTemplate.class).batchUpdate(
+                "INSERT INTO followers_following (following_id, follower_id) VALUES (?, ?)", follows);
+        context.getBean(FollowGraph.class).load();
+
+        for (int i = 0; i < TWEETS_PER_AUTHOR; i++)
+            for (User author : authors)
+                post(author);
+        fanOutRows = context.getBean(MeterRegistry.class).find("feed.fanout.rows")
+                .tag("threshold", String.valueOf(threshold)).summary();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void post(WriteAmplification amplification) {
+        double before = fanOutRows.totalAmount();
+        post(authors.get(nextAuthor++ % authors.size()));
+        amplification.rows += (long) (fanOutRows.totalAmount() - before);
+        amplification.posts++;
+    }
+
+    @Benchmark
+    public void read(Blackhole blackhole) {
+        blackhole.consume(timelineService.getTimeline(reader, Cursor.FIRST, PAGE_SIZE));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TimelineBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    // HELPER FUNCTIONS
+    private void post(User author) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Tweet tweet = new Tweet();
+            tweet.setAuthor(author);
+            tweet.setContent("Timeline benchmark tweet");
+            timelineService.fanOut(tweetRepository.save(tweet));
+        });
+    }
+
+    private static User user(String username) {
+        Credentials credentials = new Credentials();
+        credentials.setUsername(username);
+        credentials.setPassword("password");
+        Profile profile = new Profile();
+        profile.setFirstName("Bench");
+        profile.setLastName("Mark");
+        profile.setEmail(username + "@email.com");
+        profile.setPhone("123-456-7890");
+        User user = new User();
+        user.setCredentials(credentials);
+        user.setProfile(profile);
+        return user;
+    }
+}
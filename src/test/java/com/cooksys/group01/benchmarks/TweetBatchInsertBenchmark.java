@@ -0,0 +1,88 @@
+package com.cooksys.group01.benchmarks;
+
+import com.cooksys.group01.Group01Application;
+import com.cooksys.group01.entities.Tweet;
+import com.cooksys.group01.entities.User;
+import com.cooksys.group01.entities.embeddable.Credentials;
+import com.cooksys.group01.entities.embeddable.Profile;
+import com.cooksys.group01.repositories.TweetRepository;
+import com.cooksys.group01.repositories.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/* Tweets per second for bulk creation through the repository, against the test database. A batch size of 1
+is the round-trip-per-row behaviour the IDENTITY ids forced; 50 is what application.properties now sets.
+Point spring.datasource.url at Postgres to measure real network round-trips. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TweetBatchInsertBenchmark {
+
+    private static final int TWEETS_PER_CALL = 1000;
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private TweetRepository tweetRepository;
+    private TransactionTemplate transactionTemplate;
+    private User author;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(Group01Application.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize)
+                .run();
+        tweetRepository = context.getBean(TweetRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        Credentials credentials = new Credentials();
+        credentials.setUsername("benchmark");
+        credentials.setPassword("password");
+        Profile profile = new Profile();
+        profile.setFirstName("Bench");
+        profile.setLastName("Mark");
+        profile.setEmail("benchmark@email.com");
+        profile.setPhone("123-456-7890");
+        User user = new User();
+        user.setCredentials(credentials);
+        user.setProfile(profile);
+        author = context.getBean(UserRepository.class).save(user);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TWEETS_PER_CALL)
+    public void createTweets() {
+        List<Tweet> tweets = new ArrayList<>(TWEETS_PER_CALL);
+        for (int i = 0; i < TWEETS_PER_CALL; i++) {
+            Tweet tweet = new Tweet();
+            tweet.setAuthor(author);
+            tweet.setContent("Bulk tweet number " + i);
+            tweets.add(tweet);
+        }
+        transactionTemplate.executeWithoutResult(status -> tweetRepository.saveAll(tweets));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TweetBatchInsertBenchmark.class.getSimpleName()).build()).run();
+    }
+}
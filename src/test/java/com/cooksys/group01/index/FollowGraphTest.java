@@ -0,0 +1,167 @@
+package com.cooksys.group01.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FollowGraphTest {
+
+    @Test
+    void insertKeepsArraysSorted() {
+        assertArrayEquals(new long[]{5}, FollowGraph.insert(new long[0], 5));
+        assertArrayEquals(new long[]{1, 3, 5}, FollowGraph.insert(new long[]{3, 5}, 1));
+        assertArrayEquals(new long[]{1, 3, 5}, FollowGraph.insert(new long[]{1, 5}, 3));
+        assertArrayEquals(new long[]{1, 3, 5}, FollowGraph.insert(new long[]{1, 3}, 5));
+    }
+
+    @Test
+    void insertReturnsTheSameArrayForADuplicate() {
+        long[] ids = {1, 3, 5};
+        assertSame(ids, FollowGraph.insert(ids, 3));
+    }
+
+    @Test
+    void removeKeepsArraysSorted() {
+        assertArrayEquals(new long[]{3, 5}, FollowGraph.remove(new long[]{1, 3, 5}, 1));
+        assertArrayEquals(new long[]{1, 5}, FollowGraph.remove(new long[]{1, 3, 5}, 3));
+        assertArrayEquals(new long[]{1, 3}, FollowGraph.remove(new long[]{1, 3, 5}, 5));
+        assertArrayEquals(new long[0], FollowGraph.remove(new long[]{7}, 7));
+    }
+
+    @Test
+    void removeReturnsTheSameArrayWhenMissing() {
+        long[] ids = {1, 3, 5};
+        assertSame(ids, FollowGraph.remove(ids, 4));
+    }
+
+    @Test
+    void lowerBoundFindsTheFirstElementNotLess() {
+        long[] ids = {2, 4, 6};
+        assertEquals(0, FollowGraph.lowerBound(ids, 1));
+        assertEquals(1, FollowGraph.lowerBound(ids, 4));
+        assertEquals(2, FollowGraph.lowerBound(ids, 5));
+        assertEquals(3, FollowGraph.lowerBound(ids, 7));
+        assertEquals(0, FollowGraph.lowerBound(new long[0], 7));
+    }
+
+    @Test
+    void followAndUnfollowUpdateBothDirections() {
+        FollowGraph graph = new FollowGraph(null);
+
+        assertTrue(graph.follow(1, 2));
+        assertFalse(graph.follow(1, 2));
+        assertTrue(graph.follows(1, 2));
+        assertArrayEquals(new long[]{1}, graph.followers(2));
+        assertEquals(1, graph.followingCount(1));
+
+        assertTrue(graph.unfollow(1, 2));
+        assertFalse(graph.unfollow(1, 2));
+        assertFalse(graph.follows(1, 2));
+        assertEquals(0, graph.followerCount(2));
+        assertEquals(0, graph.followingCount(1));
+    }
+
+    @Test
+    void pagesFollowersNewestFirstBeforeACursor() {
+        FollowGraph graph = graphWithFollowersOf(100, 10, 20, 30, 40, 50);
+
+        assertEquals(List.of(50L, 40L), graph.followersBefore(100, Long.MAX_VALUE, 2));
+        assertEquals(List.of(20L, 10L), graph.followersBefore(100, 30, 5));
+        assertEquals(List.of(20L), graph.followersBefore(100, 25, 1));
+        assertEquals(List.of(), graph.followersBefore(100, 10, 5));
+    }
+
+    @Test
+    void pagesFollowersOldestFirstAfterACursor() {
+        FollowGraph graph = graphWithFollowersOf(100, 10, 20, 30, 40, 50);
+
+        assertEquals(List.of(40L, 50L), graph.followersAfter(100, 30, 5));
+        assertEquals(List.of(30L), graph.followersAfter(100, 25, 1));
+        assertEquals(List.of(), graph.followersAfter(100, 50, 5));
+        assertEquals(List.of(), graph.followersAfter(100, Long.MAX_VALUE, 5));
+    }
+
+    @Test
+    void pagesSkipDeletedUsersWithoutShrinking() {
+        FollowGraph graph = graphWithFollowersOf(100, 10, 20, 30, 40);
+        graph.setDeleted(30, true);
+
+        assertEquals(List.of(40L, 20L), graph.followersBefore(100, Long.MAX_VALUE, 2));
+        assertEquals(List.of(20L, 40L), graph.followersAfter(100, 10, 2));
+        assertEquals(List.of(), graph.followersBefore(200, Long.MAX_VALUE, 2));
+    }
+
+    @Test
+    void countsOnlyLiveFollowers() {
+        FollowGraph graph = graphWithFollowersOf(100, 10, 20, 30);
+        graph.setDeleted(20, true);
+        graph.setDeleted(99, true);
+
+        assertEquals(2, graph.followerCount(100));
+        for (long deleted = 1000; deleted < 1010; deleted++)
+            graph.setDeleted(deleted, true);
+        assertEquals(2, graph.followerCount(100));
+        graph.setDeleted(20, false);
+        assertEquals(3, graph.followerCount(100));
+        assertEquals(0, graph.followerCount(200));
+    }
+
+    @Test
+    void answersMembershipForSortedTargets() {
+        FollowGraph graph = new FollowGraph(null);
+        for (long followed = 2; followed <= 200; followed += 2)
+            graph.follow(1, followed);
+
+        assertArrayEquals(new boolean[]{false, true, false, true},
+                graph.followsAll(1, new long[]{1, 2, 3, 200}));
+        assertArrayEquals(new boolean[]{true, false}, graph.followsAll(1, new long[]{100, 201}));
+        assertArrayEquals(new boolean[0], graph.followsAll(1, new long[0]));
+        assertArrayEquals(new boolean[]{false}, graph.followsAll(9, new long[]{2}));
+    }
+
+    @Test
+    void concurrentFollowAndUnfollowLeaveBothMapsAgreeing() throws InterruptedException {
+        FollowGraph graph = new FollowGraph(null);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            boolean following = t % 2 == 0;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 20_000; i++) {
+                    long follower = i % 8, followed = 100 + i % 3;
+                    if (following)
+                        graph.follow(follower, followed);
+                    else
+                        graph.unfollow(follower, followed);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads)
+            thread.join();
+
+        for (long follower = 0; follower < 8; follower++)
+            for (long followed = 100; followed < 103; followed++)
+                assertEquals(graph.follows(follower, followed),
+                        graph.followedByAll(followed, new long[]{follower})[0], follower + " -> " + followed);
+    }
+
+    // HELPER FUNCTIONS
+    private static FollowGraph graphWithFollowersOf(long followed, long... followerIds) {
+        FollowGraph graph = new FollowGraph(null);
+        for (long follower : followerIds)
+            graph.follow(follower, followed);
+        return graph;
+    }
+}
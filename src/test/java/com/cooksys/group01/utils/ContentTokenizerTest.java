@@ -0,0 +1,76 @@
+package com.cooksys.group01.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentTokenizerTest {
+
+    @Test
+    void findsMentionsAndHashtags() {
+        assertEquals(List.of("@alice", "#java"), tokens("hi @alice, loving #java"));
+    }
+
+    @Test
+    void splitsWordsOnAnyWhitespace() {
+        assertEquals(List.of("@alice", "#java", "#spring", "@bob"), tokens("@alice\t#java\n#spring\r\n@bob"));
+        assertEquals(List.of("#java"), tokens("\t\n #java \n"));
+    }
+
+    @Test
+    void reportsTypesAndOffsets() {
+        List<String> found = new ArrayList<>();
+        ContentTokenizer.tokenize("a @bob #tag", (type, start, end) -> found.add(type + " " + start + " " + end));
+
+        assertEquals(List.of("MENTION 2 6", "HASHTAG 7 11"), found);
+    }
+
+    @Test
+    void ignoresALoneMarker() {
+        assertEquals(List.of(), tokens("@ # @@ ## @!"));
+        assertEquals(List.of("#end"), tokens("# #end #"));
+    }
+
+    @Test
+    void endsATokenAtTrailingPunctuation() {
+        assertEquals(List.of("@alice", "#java", "#spring"), tokens("@alice! #java. (#spring)? #spring's"));
+    }
+
+    @Test
+    void onlyStartsTokensAtTheStartOfAWord() {
+        assertEquals(List.of(), tokens("email@example.com a#b"));
+        // Whatever follows the end of a token in the same word is skipped
+        assertEquals(List.of("#one"), tokens("#one#two"));
+    }
+
+    @Test
+    void stopsAtNonAsciiCharacters() {
+        assertEquals(List.of("#caf", "@j"), tokens("#café @jürgen"));
+        assertEquals(List.of(), tokens("#日本 @émile"));
+    }
+
+    @Test
+    void handlesEmptyContent() {
+        assertEquals(List.of(), tokens(""));
+        assertEquals(List.of(), tokens(" \t\n"));
+    }
+
+    @Test
+    void acceptsOnlyWordCharactersInAWord() {
+        assertTrue(ContentTokenizer.isWord("User{42}"));
+        assertTrue(ContentTokenizer.isWord("abcXYZ019"));
+        assertFalse(ContentTokenizer.isWord("user!"));
+        assertFalse(ContentTokenizer.isWord("two words"));
+        assertFalse(ContentTokenizer.isWord("jürgen"));
+    }
+
+    // HELPER FUNCTIONS
+    private static List<String> tokens(String content) {
+        List<String> tokens = new ArrayList<>();
+        ContentTokenizer.tokenize(content, (type, start, end) -> tokens.add(content.substring(start, end)));
+        return tokens;
+    }
+}
@@ -0,0 +1,70 @@
+package com.cooksys.group01.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountMinSketchTest {
+
+    @Test
+    void countsExactlyWithoutCollisions() {
+        CountMinSketch sketch = new CountMinSketch(4, 1024);
+        for (int i = 0; i < 3; i++)
+            sketch.add("#java");
+        sketch.add("#spring");
+
+        assertEquals(3, sketch.estimate("#java"));
+        assertEquals(1, sketch.estimate("#spring"));
+        assertEquals(0, sketch.estimate("#unused"));
+    }
+
+    @Test
+    void neverUndercounts() {
+        // A narrow sketch so keys collide
+        CountMinSketch sketch = new CountMinSketch(2, 16);
+        Map<String, Integer> exact = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 5_000; i++) {
+            String key = "#tag" + random.nextInt(200);
+            sketch.add(key);
+            exact.merge(key, 1, Integer::sum);
+        }
+
+        exact.forEach((key, count) -> assertTrue(sketch.estimate(key) >= count, key));
+    }
+
+    @Test
+    void addsAndSubtractsSketches() {
+        CountMinSketch window = new CountMinSketch(4, 256);
+        CountMinSketch bucket = new CountMinSketch(4, 256);
+        window.add("#java");
+        bucket.add("#java");
+        bucket.add("#java");
+
+        window.add(bucket);
+        assertEquals(3, window.estimate("#java"));
+        window.subtract(bucket);
+        assertEquals(1, window.estimate("#java"));
+        assertEquals(2, bucket.estimate("#java"));
+    }
+
+    @Test
+    void clearsEveryCounter() {
+        CountMinSketch sketch = new CountMinSketch(4, 256);
+        sketch.add("#java");
+        sketch.clear();
+
+        assertEquals(0, sketch.estimate("#java"));
+    }
+
+    @Test
+    void rejectsUnsupportedShapes() {
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(7, 1024));
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(4, 1000));
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(4, 0));
+    }
+}
@@ -0,0 +1,105 @@
+package com.cooksys.group01.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KWayMergeTest {
+
+    private static final Comparator<Long> NEWEST_FIRST = Comparator.reverseOrder();
+
+    @Test
+    void mergesSortedSourcesInOrder() {
+        List<Long> merged = KWayMerge.merge(sources(List.of(9L, 5L, 1L), List.of(8L, 2L), List.of(7L, 6L, 3L)),
+                NEWEST_FIRST, Function.identity(), 10);
+
+        assertEquals(List.of(9L, 8L, 7L, 6L, 5L, 3L, 2L, 1L), merged);
+    }
+
+    @Test
+    void emitsAKeyFoundInSeveralSourcesOnce() {
+        List<Long> merged = KWayMerge.merge(sources(List.of(9L, 6L, 3L), List.of(9L, 6L), List.of(6L, 2L)),
+                NEWEST_FIRST, Function.identity(), 10);
+
+        assertEquals(List.of(9L, 6L, 3L, 2L), merged);
+    }
+
+    @Test
+    void keepsTheFirstItemInOrderForAKey() {
+        // Ordered by value, deduplicated by the leading digit, so of 12 and 15 only 15 survives
+        List<Integer> merged = KWayMerge.merge(sources(List.of(31, 15, 12), List.of(27, 14)),
+                Comparator.<Integer>reverseOrder(), value -> value / 10, 10);
+
+        assertEquals(List.of(31, 27, 15), merged);
+    }
+
+    @Test
+    void stopsAtTheLimit() {
+        List<Long> merged = KWayMerge.merge(sources(List.of(9L, 5L, 1L), List.of(8L, 2L)),
+                NEWEST_FIRST, Function.identity(), 3);
+
+        assertEquals(List.of(9L, 8L, 5L), merged);
+    }
+
+    @Test
+    void doesNotCountSkippedDuplicatesTowardsTheLimit() {
+        List<Long> merged = KWayMerge.merge(sources(List.of(9L, 8L, 7L), List.of(9L, 8L, 7L)),
+                NEWEST_FIRST, Function.identity(), 2);
+
+        assertEquals(List.of(9L, 8L), merged);
+    }
+
+    @Test
+    void readsNoSourcePastTheLimit() {
+        CountingIterator first = new CountingIterator(List.of(9L, 7L, 5L, 3L, 1L));
+        CountingIterator second = new CountingIterator(List.of(8L, 6L, 4L, 2L));
+
+        KWayMerge.merge(List.of(first, second), NEWEST_FIRST, Function.identity(), 2);
+
+        // 9 and 8 are emitted; each source has at most the next head read ahead
+        assertTrue(first.read <= 2);
+        assertTrue(second.read <= 2);
+    }
+
+    @Test
+    void handlesEmptyInputs() {
+        assertEquals(List.of(), KWayMerge.merge(List.of(), NEWEST_FIRST, Function.identity(), 10));
+        assertEquals(List.of(), KWayMerge.merge(sources(List.of(), List.of()), NEWEST_FIRST, Function.identity(), 10));
+        assertEquals(List.of(4L, 1L), KWayMerge.merge(sources(List.of(), List.of(4L, 1L)),
+                NEWEST_FIRST, Function.identity(), 10));
+        assertEquals(List.of(), KWayMerge.merge(sources(List.of(3L)), NEWEST_FIRST, Function.identity(), 0));
+    }
+
+    // HELPER FUNCTIONS
+    @SafeVarargs
+    private static <T> List<Iterator<T>> sources(List<T>... lists) {
+        List<Iterator<T>> sources = new ArrayList<>();
+        for (List<T> list : lists)
+            sources.add(list.iterator());
+        return sources;
+    }
+
+    private static final class CountingIterator implements Iterator<Long> {
+        private final Iterator<Long> delegate;
+        private int read;
+
+        CountingIterator(List<Long> values) {
+            delegate = values.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return delegate.hasNext();
+        }
+
+        @Override
+        public Long next() {
+            read++;
+            return delegate.next();
+        }
+    }
+}
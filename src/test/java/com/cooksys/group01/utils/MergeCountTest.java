@@ -0,0 +1,82 @@
+package com.cooksys.group01.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MergeCountTest {
+
+    private static final ForkJoinPool POOL = ForkJoinPool.commonPool();
+
+    @Test
+    void countsHowManyArraysContainEachId() {
+        MergeCount.Counts counts = MergeCount.count(List.of(new long[]{1, 3, 5}, new long[]{3, 5}, new long[]{5, 9}), POOL);
+
+        assertArrayEquals(new long[]{1, 3, 5, 9}, counts.ids());
+        assertArrayEquals(new int[]{1, 2, 3, 1}, counts.counts());
+    }
+
+    @Test
+    void countsTheSameAcrossSplitTasks() {
+        // More arrays than one task counts directly, so halves are counted separately and merged
+        List<long[]> arrays = new ArrayList<>();
+        for (int i = 0; i < 100; i++)
+            arrays.add(i % 2 == 0 ? new long[]{7, 1000 + i} : new long[]{7, 8});
+
+        MergeCount.Counts counts = MergeCount.count(arrays, POOL);
+
+        assertEquals(52, counts.size());
+        assertEquals(7, counts.ids()[0]);
+        assertEquals(100, counts.counts()[0]);
+        assertEquals(8, counts.ids()[1]);
+        assertEquals(50, counts.counts()[1]);
+        for (int i = 2; i < counts.size(); i++)
+            assertEquals(1, counts.counts()[i]);
+    }
+
+    @Test
+    void countsEmptyInputs() {
+        assertEquals(0, MergeCount.count(List.of(), POOL).size());
+        assertEquals(0, MergeCount.count(List.of(new long[0], new long[0]), POOL).size());
+    }
+
+    @Test
+    void ranksByCountThenLowerId() {
+        MergeCount.Counts counts = new MergeCount.Counts(new long[]{1, 2, 3, 4, 5}, new int[]{2, 5, 5, 1, 2});
+
+        MergeCount.Counts top = MergeCount.top(counts, 10, id -> false);
+
+        assertArrayEquals(new long[]{2, 3, 1, 5, 4}, top.ids());
+        assertArrayEquals(new int[]{5, 5, 2, 2, 1}, top.counts());
+    }
+
+    @Test
+    void keepsOnlyTheLimitWithTiesGoingToLowerIds() {
+        MergeCount.Counts counts = new MergeCount.Counts(new long[]{1, 2, 3, 4, 5}, new int[]{2, 5, 5, 1, 2});
+
+        assertArrayEquals(new long[]{2, 3, 1}, MergeCount.top(counts, 3, id -> false).ids());
+        assertArrayEquals(new long[]{2}, MergeCount.top(counts, 1, id -> false).ids());
+        assertEquals(0, MergeCount.top(counts, 0, id -> false).size());
+    }
+
+    @Test
+    void leavesOutSkippedIdsWithoutUsingUpTheLimit() {
+        MergeCount.Counts counts = new MergeCount.Counts(new long[]{1, 2, 3, 4, 5}, new int[]{2, 5, 5, 1, 2});
+
+        MergeCount.Counts top = MergeCount.top(counts, 2, id -> id == 2 || id == 3);
+
+        assertArrayEquals(new long[]{1, 5}, top.ids());
+        assertArrayEquals(new int[]{2, 2}, top.counts());
+    }
+
+    @Test
+    void ranksNothingFromEmptyCounts() {
+        MergeCount.Counts empty = new MergeCount.Counts(new long[0], new int[0]);
+
+        assertEquals(0, MergeCount.top(empty, 10, id -> false).size());
+    }
+}
@@ -0,0 +1,108 @@
+package com.cooksys.group01.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeTest {
+
+    private static final long MAX_SAFE_INTEGER = (1L << 53) - 1;
+    private static final int SEQUENCE_SIZE = 1 << Snowflake.SEQUENCE_BITS;
+
+    @Test
+    void encodesTimeNodeAndSequence() {
+        Snowflake snowflake = new Snowflake(5, () -> Snowflake.EPOCH + 1000);
+
+        long first = snowflake.nextId();
+        long second = snowflake.nextId();
+
+        assertEquals(1000, millis(first));
+        assertEquals(5, node(first));
+        assertEquals(0, sequence(first));
+        assertEquals(1000, millis(second));
+        assertEquals(1, sequence(second));
+    }
+
+    @Test
+    void borrowsTheNextMillisecondWhenTheSequenceOverflows() {
+        AtomicLong now = new AtomicLong(Snowflake.EPOCH + 1000);
+        Snowflake snowflake = new Snowflake(0, now::get);
+
+        long last = -1;
+        for (int i = 0; i < SEQUENCE_SIZE; i++) {
+            long id = snowflake.nextId();
+            assertTrue(id > last);
+            last = id;
+        }
+        assertEquals(1000, millis(last));
+        assertEquals(SEQUENCE_SIZE - 1, sequence(last));
+
+        // The clock has not moved, so the next id is taken from the following millisecond
+        long borrowed = snowflake.nextId();
+        assertEquals(1001, millis(borrowed));
+        assertEquals(0, sequence(borrowed));
+
+        // Once the clock reaches the borrowed millisecond ids carry on after it, then follow the clock again
+        now.set(Snowflake.EPOCH + 1001);
+        assertEquals(1, sequence(snowflake.nextId()));
+        now.set(Snowflake.EPOCH + 1005);
+        long caughtUp = snowflake.nextId();
+        assertEquals(1005, millis(caughtUp));
+        assertEquals(0, sequence(caughtUp));
+    }
+
+    @Test
+    void keepsIncreasingWhenTheClockStepsBack() {
+        AtomicLong now = new AtomicLong(Snowflake.EPOCH + 5000);
+        Snowflake snowflake = new Snowflake(3, now::get);
+        long beforeStep = snowflake.nextId();
+
+        now.set(Snowflake.EPOCH + 4000);
+        long afterStep = snowflake.nextId();
+        assertTrue(afterStep > beforeStep);
+        assertEquals(5000, millis(afterStep));
+        assertEquals(3, node(afterStep));
+
+        // Ids stay on the last issued millisecond until the clock passes it
+        now.set(Snowflake.EPOCH + 5001);
+        long recovered = snowflake.nextId();
+        assertTrue(recovered > afterStep);
+        assertEquals(5001, millis(recovered));
+        assertEquals(0, sequence(recovered));
+    }
+
+    @Test
+    void fitsInAJavaScriptNumber() {
+        long lastMillisecond = (1L << (53 - Snowflake.NODE_BITS - Snowflake.SEQUENCE_BITS)) - 1;
+        Snowflake snowflake = new Snowflake(Snowflake.MAX_NODE, () -> Snowflake.EPOCH + lastMillisecond);
+
+        long id = 0;
+        for (int i = 0; i < SEQUENCE_SIZE; i++)
+            id = snowflake.nextId();
+
+        assertEquals(MAX_SAFE_INTEGER, id);
+        assertTrue(new Snowflake(0).nextId() <= MAX_SAFE_INTEGER);
+    }
+
+    @Test
+    void rejectsNodesOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> new Snowflake(-1));
+        assertThrows(IllegalArgumentException.class, () -> new Snowflake(Snowflake.MAX_NODE + 1));
+        new Snowflake(Snowflake.MAX_NODE);
+    }
+
+    // HELPER FUNCTIONS
+    private static long millis(long id) {
+        return id >>> (Snowflake.NODE_BITS + Snowflake.SEQUENCE_BITS);
+    }
+
+    private static long node(long id) {
+        return (id >>> Snowflake.SEQUENCE_BITS) & Snowflake.MAX_NODE;
+    }
+
+    private static long sequence(long id) {
+        return id & (SEQUENCE_SIZE - 1);
+    }
+}